@@ -0,0 +1,84 @@
+package com.example.jwttutorial.audit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 요청 스레드가 감사 로그 한 건을 남기는 데 드는 비용 비교
+ *
+ * synchronousWrite : 요청마다 sink에 바로 저장 (DB 왕복 1회를 sinkCallCost로 흉내낸다)
+ * asyncRecord : AuthAuditLog.record()로 버퍼에 넣기만 하고, 저장은 writer 스레드가 배치로 처리
+ *
+ * ./gradlew jmh -Pjmh.includes=AuthAuditLogBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthAuditLogBenchmark {
+
+    @Param({"DROP", "BLOCK"})
+    private AuthAuditLog.OverflowPolicy overflowPolicy;
+
+    /**
+     * sink 호출 한 번(배치 크기와 무관한 왕복 비용)에 소모할 CPU 토큰 수
+     */
+    @Param({"20000"})
+    private long sinkCallCost;
+
+    private AuthAuditSink sink;
+    private AuthAuditLog auditLog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sink = events -> Blackhole.consumeCPU(sinkCallCost + events.size() * 10L);
+        auditLog = new AuthAuditLog(sink, 8192, 500, Duration.ofMillis(200), overflowPolicy);
+        auditLog.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        auditLog.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void asyncRecord() {
+        auditLog.record(AuthAuditType.LOGIN_SUCCESS, "user", "127.0.0.1", null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void asyncRecordContended() {
+        auditLog.record(AuthAuditType.LOGIN_SUCCESS, "user", "127.0.0.1", null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void synchronousWrite() {
+        sink.write(List.of(new AuthAuditEvent(AuthAuditType.LOGIN_SUCCESS, "user", "127.0.0.1", null, System.currentTimeMillis())));
+    }
+
+    /**
+     * 버퍼 자체의 생산자 비용 (writer 스레드 없이 offer/poll 한 쌍)
+     */
+    @State(Scope.Thread)
+    public static class RingBufferState {
+
+        BoundedRingBuffer<AuthAuditEvent> buffer = new BoundedRingBuffer<>(1024);
+        AuthAuditEvent event = new AuthAuditEvent(AuthAuditType.LOGIN_SUCCESS, "user", "127.0.0.1", null, 0L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AuthAuditEvent ringBufferOfferPoll(RingBufferState state) {
+        state.buffer.offer(state.event);
+        return state.buffer.poll();
+    }
+}
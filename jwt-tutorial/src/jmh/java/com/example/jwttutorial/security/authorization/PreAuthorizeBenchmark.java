@@ -0,0 +1,68 @@
+package com.example.jwttutorial.security.authorization;
+
+import com.example.jwttutorial.user.presentation.UserController;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @PreAuthorize 한 번의 인가 판단 비용 비교 (UserController.getMyUserInfo : hasAnyRole('USER','ADMIN'))
+ *
+ * spel : 기본 PreAuthorizeAuthorizationManager (매 호출 EvaluationContext 생성 + SpEL 평가)
+ * precompiled : PrecompiledPreAuthorizeAuthorizationManager
+ *
+ * ./gradlew jmh -Pjmh.includes=PreAuthorizeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PreAuthorizeBenchmark {
+
+    @Param({"ROLE_USER", "ROLE_USER,ROLE_ADMIN", "SCOPE_read"})
+    private String authorities;
+
+    private PreAuthorizeAuthorizationManager spel;
+    private PrecompiledPreAuthorizeAuthorizationManager precompiled;
+    private MethodInvocation invocation;
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setUp() {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        spel = new PreAuthorizeAuthorizationManager();
+        spel.setExpressionHandler(expressionHandler);
+        precompiled = new PrecompiledPreAuthorizeAuthorizationManager(expressionHandler, "ROLE_");
+
+        invocation = new SimpleMethodInvocation(new UserController(null, null),
+                ReflectionUtils.findMethod(UserController.class, "getMyUserInfo", jakarta.servlet.http.HttpServletRequest.class),
+                (Object) null);
+
+        // JwtFilter가 요청마다 만드는 것과 같은 형태의 인증 객체
+        Authentication token = new UsernamePasswordAuthenticationToken("user", "jwt",
+                AuthorityUtils.commaSeparatedStringToAuthorityList(authorities));
+        authentication = () -> token;
+    }
+
+    @Benchmark
+    public AuthorizationDecision spel() {
+        return spel.check(authentication, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision precompiled() {
+        return precompiled.check(authentication, invocation);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.jwttutorial.user.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인/회원가입 DTO 인코딩/디코딩 비용 비교
+ *
+ * reflection : Jackson 기본 BeanSerializer/BeanDeserializer
+ * blackbird : BlackbirdModule만 등록
+ * codec : BlackbirdModule + AuthDtoJsonModule (애플리케이션 설정과 동일)
+ *
+ * ./gradlew jmh -Pjmh.includes=AuthDtoCodecBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthDtoCodecBenchmark {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzUxMiJ9." +
+            "eyJzdWIiOiJhZG1pbiIsImF1dGgiOiJST0xFX0FETUlOLFJPTEVfVVNFUiIsImV4cCI6MTcwMDAwMDAwMH0." +
+            "c2lnbmF0dXJlLXNpZ25hdHVyZS1zaWduYXR1cmUtc2lnbmF0dXJlLXNpZ25hdHVyZS1zaWduYXR1cmU";
+
+    private static final byte[] LOGIN_JSON = "{\"username\":\"admin\",\"password\":\"admin\"}".getBytes();
+    private static final byte[] SIGNUP_JSON = "{\"username\":\"user1\",\"password\":\"password\",\"nickname\":\"nick\"}".getBytes();
+
+    @Param({"reflection", "blackbird", "codec"})
+    private String mapper;
+
+    private ObjectWriter tokenWriter;
+    private ObjectWriter userWriter;
+    private ObjectReader loginReader;
+    private ObjectReader userReader;
+
+    private TokenDto tokenDto;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        if (!mapper.equals("reflection")) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        if (mapper.equals("codec")) {
+            objectMapper.registerModule(new AuthDtoJsonModule());
+        }
+
+        tokenWriter = objectMapper.writerFor(TokenDto.class);
+        userWriter = objectMapper.writerFor(UserDto.class);
+        loginReader = objectMapper.readerFor(LoginDto.class);
+        userReader = objectMapper.readerFor(UserDto.class);
+
+        tokenDto = new TokenDto(TOKEN);
+        userDto = UserDto.builder()
+                .username("admin")
+                .nickname("admin")
+                .authorityDtoSet(Set.of(new AuthorityDto("ROLE_USER"), new AuthorityDto("ROLE_ADMIN")))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] encodeToken() throws IOException {
+        return tokenWriter.writeValueAsBytes(tokenDto);
+    }
+
+    @Benchmark
+    public byte[] encodeUser() throws IOException {
+        return userWriter.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public LoginDto decodeLogin() throws IOException {
+        return loginReader.readValue(LOGIN_JSON);
+    }
+
+    @Benchmark
+    public UserDto decodeSignup() throws IOException {
+        return userReader.readValue(SIGNUP_JSON);
+    }
+}
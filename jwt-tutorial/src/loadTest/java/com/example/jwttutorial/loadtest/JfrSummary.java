@@ -0,0 +1,121 @@
+package com.example.jwttutorial.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JFR 레코딩에서 인증 구간 커스텀 이벤트(com.example.jwttutorial.*)만 골라 단계(이벤트)별, 결과(outcome)별 지연시간 분포를 요약한다.
+ * 지연시간 단위는 ms이다.
+ *
+ * ./gradlew jfrSummary -PjfrSummary.recording=app.jfr
+ */
+public class JfrSummary {
+
+    private static final String EVENT_PREFIX = "com.example.jwttutorial.";
+
+    // 1us ~ 1h, 유효숫자 3자리 (단위 : us)
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Map<String, Map<String, Histogram>> histograms = new TreeMap<>();
+
+    public static void main(String[] args) throws IOException {
+        String recording = System.getProperty("jfrSummary.recording");
+        if (recording == null) {
+            throw new IllegalArgumentException("-PjfrSummary.recording=<레코딩 파일> 을 지정해야 합니다.");
+        }
+        Path output = Path.of(System.getProperty("jfrSummary.output", "build/jfr-summary/summary.json"));
+
+        JfrSummary summary = new JfrSummary();
+        summary.read(Path.of(recording));
+        summary.print();
+        summary.write(output);
+        System.out.println("결과 파일 : " + output.toAbsolutePath());
+    }
+
+    void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(EVENT_PREFIX)) {
+                    continue;
+                }
+                String phase = name.substring(EVENT_PREFIX.length());
+                long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(event.getDuration().toNanos()));
+                histograms.computeIfAbsent(phase, key -> new TreeMap<>())
+                        .computeIfAbsent(outcome(event), key -> new Histogram(HIGHEST_TRACKABLE_MICROS, 3))
+                        .recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            }
+        }
+    }
+
+    /**
+     * outcome 필드가 없는 이벤트(PasswordMatch)는 matched 값으로 나눈다.
+     */
+    private static String outcome(RecordedEvent event) {
+        if (event.hasField("outcome")) {
+            String outcome = event.getString("outcome");
+            return outcome != null ? outcome : "UNKNOWN";
+        }
+        if (event.hasField("matched")) {
+            return event.getBoolean("matched") ? "MATCHED" : "MISMATCHED";
+        }
+        return "ALL";
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> phases = new TreeMap<>();
+        histograms.forEach((phase, byOutcome) -> {
+            Map<String, Object> outcomes = new TreeMap<>();
+            byOutcome.forEach((outcome, histogram) -> outcomes.put(outcome, summarize(histogram)));
+            phases.put(phase, outcomes);
+        });
+        return phases;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("meanMs", toMillis(histogram.getMean()));
+        summary.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+        summary.put("p90Ms", toMillis(histogram.getValueAtPercentile(90)));
+        summary.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+        summary.put("maxMs", toMillis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private void print() {
+        System.out.printf("%-20s %-28s %10s %10s %10s %10s %10s%n", "phase", "outcome", "count", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)");
+        histograms.forEach((phase, byOutcome) -> byOutcome.forEach((outcome, histogram) ->
+                System.out.printf("%-20s %-28s %10d %10.3f %10.3f %10.3f %10.3f%n", phase, outcome,
+                        histogram.getTotalCount(),
+                        toMillis(histogram.getValueAtPercentile(50)),
+                        toMillis(histogram.getValueAtPercentile(90)),
+                        toMillis(histogram.getValueAtPercentile(99)),
+                        toMillis(histogram.getMaxValue()))));
+    }
+
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    void write(Path output) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), toMap());
+    }
+}
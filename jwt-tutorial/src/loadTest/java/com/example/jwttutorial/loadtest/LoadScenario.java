@@ -0,0 +1,38 @@
+package com.example.jwttutorial.loadtest;
+
+/**
+ * 부하 테스트에서 섞어서 실행하는 요청 시나리오와 기대 응답 코드
+ */
+public enum LoadScenario {
+
+    LOGIN("login", 200),
+    ME("me", 200),
+    ADMIN_LOOKUP("admin", 200),
+    SIGNUP("signup", 200),
+    INVALID_TOKEN("invalidToken", 401);
+
+    private final String key;
+    private final int expectedStatus;
+
+    LoadScenario(String key, int expectedStatus) {
+        this.key = key;
+        this.expectedStatus = expectedStatus;
+    }
+
+    public static LoadScenario fromKey(String key) {
+        for (LoadScenario scenario : values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 시나리오입니다: " + key);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int expectedStatus() {
+        return expectedStatus;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.jwttutorial.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정값. gradle -PloadTest.xxx 로 넘긴 값이 시스템 프로퍼티로 전달된다.
+ */
+public class LoadTestConfig {
+
+    private static final String DEFAULT_MIX = "login=10,me=45,admin=10,signup=5,invalidToken=30";
+
+    private final int users;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration coldWindow;
+    private final boolean applicationWarmup;
+    private final boolean credentialSnapshot;
+    private final Map<LoadScenario, Integer> mix;
+    private final Path output;
+
+    private LoadTestConfig(int users, int concurrency, Duration warmup, Duration duration,
+                           Duration coldWindow, boolean applicationWarmup, boolean credentialSnapshot,
+                           Map<LoadScenario, Integer> mix, Path output) {
+        this.users = users;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.coldWindow = coldWindow;
+        this.applicationWarmup = applicationWarmup;
+        this.credentialSnapshot = credentialSnapshot;
+        this.mix = mix;
+        this.output = output;
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadTest.users", 1_000),
+                Integer.getInteger("loadTest.concurrency", 32),
+                Duration.ofSeconds(Long.getLong("loadTest.warmup", 10L)),
+                Duration.ofSeconds(Long.getLong("loadTest.duration", 60L)),
+                Duration.ofSeconds(Long.getLong("loadTest.coldWindow", 60L)),
+                Boolean.parseBoolean(System.getProperty("loadTest.applicationWarmup", "true")),
+                Boolean.parseBoolean(System.getProperty("loadTest.credentialSnapshot", "false")),
+                parseMix(System.getProperty("loadTest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadTest.output", "build/load-test/results.json"))
+        );
+    }
+
+    /**
+     * "login=10,me=45" 형태의 시나리오 가중치를 파싱한다.
+     */
+    private static Map<LoadScenario, Integer> parseMix(String value) {
+        Map<LoadScenario, Integer> mix = new EnumMap<>(LoadScenario.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("잘못된 시나리오 가중치입니다: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(LoadScenario.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("최소 하나의 시나리오가 필요합니다: " + value);
+        }
+        return mix;
+    }
+
+    public int users() {
+        return users;
+    }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    public Duration warmup() {
+        return warmup;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * 첫 요청부터 이 시간 동안의 요청은 loadTest.warmup과 상관없이 따로 모아서 기동 직후 지연시간으로 보고한다.
+     */
+    public Duration coldWindow() {
+        return coldWindow;
+    }
+
+    /**
+     * 애플리케이션의 readiness 전 워밍업(warmup.enabled) 여부
+     */
+    public boolean applicationWarmup() {
+        return applicationWarmup;
+    }
+
+    /**
+     * 로그인 유저 조회를 DB 대신 스냅샷(credential-snapshot.enabled)으로 할지 여부
+     */
+    public boolean credentialSnapshot() {
+        return credentialSnapshot;
+    }
+
+    public Map<LoadScenario, Integer> mix() {
+        return mix;
+    }
+
+    public Path output() {
+        return output;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.jwttutorial.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 시나리오별 처리량과 지연시간 백분위를 JSON으로 남기는 클래스
+ * 지연시간 단위는 ms이다.
+ */
+public class LoadTestReport {
+
+    private final LoadTestConfig config;
+    private final Map<LoadScenario, Histogram> histograms;
+    private final Map<LoadScenario, LongAdder> errors;
+    private final Histogram coldHistogram;
+    private final long coldErrors;
+
+    public LoadTestReport(LoadTestConfig config,
+                          Map<LoadScenario, Histogram> histograms,
+                          Map<LoadScenario, LongAdder> errors,
+                          Histogram coldHistogram,
+                          long coldErrors) {
+        this.config = config;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.coldHistogram = coldHistogram;
+        this.coldErrors = coldErrors;
+    }
+
+    public Map<String, Object> toMap() {
+        double seconds = config.duration().toMillis() / 1000.0;
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", config.users());
+        settings.put("concurrency", config.concurrency());
+        settings.put("warmupSeconds", config.warmup().getSeconds());
+        settings.put("durationSeconds", config.duration().getSeconds());
+        settings.put("coldWindowSeconds", config.coldWindow().getSeconds());
+        settings.put("applicationWarmup", config.applicationWarmup());
+        settings.put("credentialSnapshot", config.credentialSnapshot());
+
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        Histogram total = null;
+        long totalErrors = 0;
+        for (Map.Entry<LoadScenario, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long errorCount = errors.get(entry.getKey()).sum();
+            scenarios.put(entry.getKey().key(), summarize(histogram, errorCount, seconds));
+
+            if (total == null) {
+                total = new Histogram(histogram.getHighestTrackableValue(), histogram.getNumberOfSignificantValueDigits());
+            }
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("total", summarize(total, totalErrors, seconds));
+        // 기동 직후(첫 요청부터 coldWindow까지) 지연시간. 워밍업 효과는 applicationWarmup=true/false 결과를 비교한다.
+        result.put("coldStart", summarize(coldHistogram, coldErrors,
+                Math.min(config.coldWindow().toMillis(), config.warmup().plus(config.duration()).toMillis()) / 1000.0));
+        result.put("scenarios", scenarios);
+        return result;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram, long errorCount, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errorCount);
+        summary.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+        summary.put("meanMs", toMillis(histogram.getMean()));
+        summary.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+        summary.put("p90Ms", toMillis(histogram.getValueAtPercentile(90)));
+        summary.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", toMillis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", toMillis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double toMillis(double micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    public void write(Path output) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), toMap());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.jwttutorial.loadtest;
+
+import com.example.jwttutorial.JwtTutorialApplication;
+import com.example.jwttutorial.credential.CredentialSnapshotUserDetailsService;
+import com.example.jwttutorial.user.application.UsernameFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * ./gradlew loadTest 의 진입점
+ * 1. H2 프로파일로 애플리케이션을 임의의 포트에 띄우고
+ * 2. 부하 테스트용 유저를 batch insert로 넣은 뒤
+ * 3. 시나리오를 섞어서 부하를 걸고 결과를 JSON으로 남긴다.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JwtTutorialApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.com.example.jwttutorial=WARN",
+                        "warmup.enabled=" + config.applicationWarmup(),
+                        "credential-snapshot.enabled=" + config.credentialSnapshot(),
+                        "credential-snapshot.change-log-enabled=" + config.credentialSnapshot()
+                )
+                .run(args);
+
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            LoadTestSeeder seeder = new LoadTestSeeder(
+                    context.getBean(DataSource.class), context.getBean(PasswordEncoder.class));
+            List<String> usernames = seeder.seed(config.users());
+            // JDBC로 직접 넣은 유저는 username 필터의 주기적 갱신 전까지 보이지 않으므로 바로 다시 만든다.
+            context.getBean(UsernameFilter.class).rebuild();
+            // 스냅샷도 마찬가지로 변경 로그를 거치지 않았으므로 바로 다시 만든다.
+            context.getBeanProvider(CredentialSnapshotUserDetailsService.class)
+                    .ifAvailable(CredentialSnapshotUserDetailsService::refresh);
+
+            LoadGenerator generator = new LoadGenerator(URI.create("http://127.0.0.1:" + port), config, usernames);
+            LoadTestReport report = generator.run();
+            report.write(config.output());
+
+            System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report.toMap()));
+            System.out.println("결과 파일: " + config.output().toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.jwttutorial.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트용 유저를 대량으로 넣는 클래스
+ * 회원가입 API를 N번 호출하면 N번의 해시 계산이 필요하므로,
+ * 해시는 한 번만 계산하고 JDBC batch insert로 바로 넣는다.
+ */
+public class LoadTestSeeder {
+
+    public static final String USERNAME_PREFIX = "lt-user-";
+    public static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public LoadTestSeeder(DataSource dataSource, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public List<String> seed(int users) {
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        long roleMask = 1L << jdbcTemplate.queryForObject(
+                "select authority_id from authority where authority_name = 'ROLE_USER'", Integer.class);
+        List<String> usernames = new ArrayList<>(users);
+
+        for (int from = 0; from < users; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(users, from + BATCH_SIZE); i++) {
+                String username = USERNAME_PREFIX + i;
+                usernames.add(username);
+                batch.add(new Object[]{username, encodedPassword, username, true, roleMask});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into user (username, password, nickname, activated, role_mask) values (?, ?, ?, ?, ?)", batch);
+        }
+
+        // 권한은 user_id를 알 필요 없이 insert-select 한 번으로 연결한다.
+        jdbcTemplate.update(
+                "insert into user_authority (user_id, authority_name) " +
+                        "select user_id, 'ROLE_USER' from user where username like '" + USERNAME_PREFIX + "%'");
+
+        return usernames;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.jwttutorial.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션 프로세스를 새로 띄워서 첫 요청(/api/hello)이 성공할 때까지 걸린 시간을 측정한다.
+ * 인자로 java 실행 파일을 제외한 JVM 옵션, 클래스패스, 메인 클래스, 애플리케이션 인자를 받는다.
+ *
+ * 측정이 끝나면 프로세스를 정상 종료(SIGTERM)시키므로
+ * -XX:ArchiveClassesAtExit 를 넘기면 CDS 학습 실행으로도 사용할 수 있다.
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.getInteger("startup.iterations", 5);
+        Path output = Path.of(System.getProperty("startup.output", "build/startup-benchmark/results.json"));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(100))
+                .build();
+
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            long elapsed = measure(httpClient, args, output.resolveSibling("startup-" + i + ".log"));
+            millis.add(elapsed);
+            System.out.printf("run %d: 첫 요청까지 %d ms%n", i + 1, elapsed);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("command", Arrays.asList(args));
+        result.put("iterations", iterations);
+        result.put("timeToFirstRequestMs", millis);
+        result.put("minMs", millis.stream().mapToLong(Long::longValue).min().orElse(0));
+        result.put("medianMs", millis.stream().sorted().skip(millis.size() / 2).findFirst().orElse(0L));
+        result.put("meanMs", millis.stream().mapToLong(Long::longValue).average().orElse(0));
+        result.put("maxMs", millis.stream().mapToLong(Long::longValue).max().orElse(0));
+
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.toFile(), result);
+        System.out.println("결과 파일: " + output.toAbsolutePath());
+    }
+
+    private static long measure(HttpClient httpClient, String[] args, Path log) throws Exception {
+        int port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(args));
+        command.add("--server.port=" + port);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/hello"))
+                .timeout(Duration.ofSeconds(1))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("애플리케이션이 기동 중에 종료되었습니다. 로그: " + log.toAbsolutePath());
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않았다.
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(STARTUP_TIMEOUT + " 안에 기동되지 않았습니다. 로그: " + log.toAbsolutePath());
+        } finally {
+            // SIGTERM으로 종료해야 셧다운 훅과 CDS 아카이브 덤프가 정상적으로 수행된다.
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.jwttutorial.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 링 버퍼에 쌓였다가 배치로 저장되는 인증 감사 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class AuthAuditEvent {
+
+    private final AuthAuditType type;
+    private final String username;
+    private final String clientIp;
+    private final String detail;
+    private final long occurredAtMillis;
+}
@@ -0,0 +1,222 @@
+package com.example.jwttutorial.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 인증 감사 로그 파이프라인
+ *
+ * 요청 스레드(AuthController, CustomUserDetailsService, JwtFilter)는 record()로 이벤트를 링 버퍼에 넣기만 하고 바로 돌아간다.
+ * 백그라운드 writer 스레드가 버퍼를 비우면서 batch-size만큼 모이거나 flush-interval이 지나면 AuthAuditSink로 한 번에 저장한다.
+ *
+ * 버퍼가 가득 찼을 때(overflow-policy)
+ * DROP : 이벤트를 버리고 dropped 카운터만 올린다. 요청 지연에 영향을 주지 않는다. (기본값)
+ * BLOCK : 빈 자리가 생길 때까지 요청 스레드가 기다린다. 이벤트를 잃지 않는 대신 DB가 느려지면 요청도 느려진다.
+ *         writer 스레드가 멈췄으면(예상하지 못한 Error 등) 자리가 생기지 않으므로 기다리지 않고 DROP처럼 버린다.
+ *
+ * 종료 시에는 웹 서버가 멈춘 뒤(SmartLifecycle phase) 버퍼에 남은 이벤트를 모두 저장하고 writer 스레드를 끝낸다.
+ */
+@Component
+public class AuthAuditLog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthAuditLog.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private final AuthAuditSink sink;
+    private final BoundedRingBuffer<AuthAuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean accepting = true;
+    private volatile Thread writer;
+
+    public AuthAuditLog(AuthAuditSink sink, int capacity, int batchSize, Duration flushInterval, OverflowPolicy overflowPolicy) {
+        this.sink = sink;
+        this.buffer = new BoundedRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Autowired
+    public AuthAuditLog(AuthAuditSink sink,
+                        @Value("${audit.buffer-capacity:8192}") int capacity,
+                        @Value("${audit.batch-size:500}") int batchSize,
+                        @Value("${audit.flush-interval:200ms}") Duration flushInterval,
+                        @Value("${audit.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+        this(sink, capacity, batchSize, flushInterval, overflowPolicy);
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("auth.audit.buffer.size", buffer, BoundedRingBuffer::size).register(registry);
+        FunctionCounter.builder("auth.audit.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("auth.audit.written", written, LongAdder::sum).register(registry);
+        FunctionCounter.builder("auth.audit.failed", failed, LongAdder::sum).register(registry);
+    }
+
+    /**
+     * 현재 요청의 클라이언트 IP를 함께 기록한다.
+     */
+    public void record(AuthAuditType type, String username, String detail) {
+        record(type, username, currentClientIp(), detail);
+    }
+
+    public void record(AuthAuditType type, String username, String clientIp, String detail) {
+        if (!accepting) {
+            dropped.increment();
+            return;
+        }
+
+        AuthAuditEvent event = new AuthAuditEvent(type, username, clientIp, detail, System.currentTimeMillis());
+        if (buffer.offer(event)) {
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            while (accepting && writerAlive()) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    private boolean writerAlive() {
+        Thread current = writer;
+        return running && current != null && current.isAlive();
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void runWriter() {
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+
+        while (running) {
+            boolean wasEmpty = batch.isEmpty();
+            int drained = buffer.drainTo(batch, batchSize - batch.size());
+            if (wasEmpty && drained > 0) {
+                batchStartedAt = System.nanoTime();
+            }
+
+            if (batch.size() >= batchSize
+                    || (!batch.isEmpty() && System.nanoTime() - batchStartedAt >= flushIntervalNanos)) {
+                flush(batch);
+            } else if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        // 종료 요청을 받으면 버퍼에 남은 이벤트를 모두 저장한다.
+        do {
+            buffer.drainTo(batch, batchSize - batch.size());
+            flush(batch);
+        } while (buffer.size() > 0);
+    }
+
+    private void flush(List<AuthAuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            sink.write(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            logger.error("인증 감사 로그 {}건을 저장하지 못했습니다.", batch.size(), e);
+        }
+        batch.clear();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        writer = new Thread(this::runWriter, "auth-audit-writer");
+        writer.setDaemon(true);
+        writer.setUncaughtExceptionHandler((thread, e) -> logger.error(
+                "인증 감사 로그 writer가 종료되었습니다. 남은 이벤트: {}, 이후 이벤트는 버립니다.", buffer.size(), e));
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("인증 감사 로그 writer가 {}ms 안에 종료되지 않았습니다. 남은 이벤트: {}", SHUTDOWN_TIMEOUT_MILLIS, buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 웹 서버(DEFAULT_PHASE - 2048)보다 먼저 시작하고 나중에 멈추도록 낮은 phase를 사용한다.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
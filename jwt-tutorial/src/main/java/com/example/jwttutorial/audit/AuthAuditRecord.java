@@ -0,0 +1,39 @@
+package com.example.jwttutorial.audit;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * auth_audit_log 테이블 매핑
+ * 저장은 JdbcAuthAuditSink가 JDBC batch로 직접 하고, 엔티티는 스키마 생성/검증과 조회용으로만 사용한다.
+ */
+@Entity
+@Table(name = "auth_audit_log", indexes = @Index(name = "idx_auth_audit_log_occurred_at", columnList = "occurred_at"))
+@Getter
+@NoArgsConstructor
+public class AuthAuditRecord {
+
+    @Id
+    @Column(name = "audit_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long auditId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 30, nullable = false)
+    private AuthAuditType eventType;
+
+    @Column(name = "username", length = 50)
+    private String username;
+
+    @Column(name = "client_ip", length = 45)
+    private String clientIp;
+
+    @Column(name = "detail", length = 255)
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,12 @@
+package com.example.jwttutorial.audit;
+
+import java.util.List;
+
+/**
+ * AuthAuditLog의 writer 스레드가 모은 이벤트를 한 번에 저장하는 곳
+ */
+@FunctionalInterface
+public interface AuthAuditSink {
+
+    void write(List<AuthAuditEvent> events);
+}
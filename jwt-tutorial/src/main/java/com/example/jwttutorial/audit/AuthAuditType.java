@@ -0,0 +1,13 @@
+package com.example.jwttutorial.audit;
+
+/**
+ * 인증 감사 로그 이벤트 종류
+ */
+public enum AuthAuditType {
+
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    USER_NOT_FOUND,
+    USER_DEACTIVATED,
+    TOKEN_REJECTED
+}
@@ -0,0 +1,304 @@
+package com.example.jwttutorial.config;
+
+import com.example.jwttutorial.security.jwt.JwtFilter;
+import com.example.jwttutorial.security.jwt.TokenProvider;
+import com.example.jwttutorial.user.domain.Repository.UserRepository;
+import com.example.jwttutorial.user.dto.AuthorityDto;
+import com.example.jwttutorial.user.dto.LoginDto;
+import com.example.jwttutorial.user.dto.TokenDto;
+import com.example.jwttutorial.user.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 배포 직후 첫 요청들이 JIT 컴파일, 커넥션 생성, 캐시 적재 비용을 내지 않도록 readiness 이전에 주요 경로를 미리 실행한다.
+ *
+ * ApplicationStartedEvent 리스너는 ApplicationReadyEvent(= readiness ACCEPTING_TRAFFIC) 전에 동기로 실행되므로,
+ * 여기서 시간을 쓰는 동안 readiness probe는 준비되지 않은 상태로 응답한다.
+ *
+ * 1. Hikari 풀을 minimum-idle 개수만큼 미리 채운다.
+ * 2. iterations 회 또는 time-budget이 지날 때까지 아래를 반복한다.
+ *    - TokenProvider 토큰 생성/검증/Authentication 복원/introspect
+ *    - 토큰 없는 요청, 유효한 토큰 요청을 로컬 포트로 보내 JwtFilter부터 컨트롤러, 예외 처리까지 실행
+ *    - 인증 DTO 직렬화/역직렬화
+ *    - 로그인/내 정보 조회가 사용하는 user 조회 쿼리
+ * 3. 비밀번호 비교(bcrypt 등)는 한 번이 비싸므로 password-matches 회만 실행한다.
+ * 4. 로그인(POST /api/authenticate)도 logins 회 보낸다. LoginDto 역직렬화/검증, AuthenticationManager,
+ *    DaoAuthenticationProvider, UserDetailsService, 실패 응답 처리까지 실행된다.
+ *    실패한 로그인도 더미 해시 비교를 하므로 password-matches와 같이 횟수를 적게 잡는다.
+ *
+ * HTTP 요청은 server.address, server.ssl, server.servlet.context-path를 따르는 로컬 주소로 보내고,
+ * 요청마다 남은 time-budget을 timeout으로 준다. HTTP 요청이 실패하면 HTTP 워밍업만 멈추고 나머지는 계속한다.
+ *
+ * 유저 조회는 가입할 수 없는 길이(50자 초과)의 username으로 하므로 실제 유저 데이터는 읽지 않는다.
+ * 로그인은 LoginDto 검증을 통과해야 하므로 50자 이하의 username과 기동할 때마다 새로 만드는 비밀번호를 쓴다.
+ * 그래서 항상 실패하며, 감사 로그에는 이 username의 로그인 실패가 logins 회 남는다.
+ */
+@Component
+public class ApplicationWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationWarmup.class);
+
+    private static final String WARMUP_USERNAME = "warmup-" + "x".repeat(50);
+    private static final String WARMUP_PASSWORD = "warmup-password";
+    private static final String WARMUP_LOGIN_USERNAME = "__warmup__";
+
+    private final TokenProvider tokenProvider;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectProvider<HikariDataSource> pools;
+    private final ObjectProvider<ServerProperties> serverProperties;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeBudget;
+    private final int passwordMatches;
+    private final int logins;
+
+    public ApplicationWarmup(TokenProvider tokenProvider,
+                             ObjectMapper objectMapper,
+                             UserRepository userRepository,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             ObjectProvider<HikariDataSource> pools,
+                             ObjectProvider<ServerProperties> serverProperties,
+                             @Value("${warmup.enabled:true}") boolean enabled,
+                             @Value("${warmup.iterations:2000}") int iterations,
+                             @Value("${warmup.time-budget:10s}") Duration timeBudget,
+                             @Value("${warmup.password-matches:3}") int passwordMatches,
+                             @Value("${warmup.logins:20}") int logins) {
+        this.tokenProvider = tokenProvider;
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.passwordEncoder = passwordEncoder;
+        this.pools = pools;
+        this.serverProperties = serverProperties;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeBudget = timeBudget;
+        this.passwordMatches = passwordMatches;
+        this.logins = logins;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp(ApplicationStartedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + timeBudget.toNanos();
+
+        pools.orderedStream().forEach(this::fillPool);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                WARMUP_USERNAME, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+        LocalRequests requests = event.getApplicationContext() instanceof WebServerApplicationContext webContext
+                ? localRequests(webContext.getWebServer().getPort(), deadline)
+                : null;
+
+        int completed = 0;
+        try {
+            String encodedPassword = passwordEncoder.encode(WARMUP_PASSWORD);
+            for (int i = 0; i < passwordMatches && System.nanoTime() < deadline; i++) {
+                passwordEncoder.matches(WARMUP_PASSWORD, encodedPassword);
+            }
+
+            while (completed < iterations && System.nanoTime() < deadline) {
+                String token = warmUpTokens(authentication);
+                warmUpCodecs(token);
+                warmUpQueries();
+                if (requests != null) {
+                    try {
+                        requests.send(token);
+                        if (completed < logins) {
+                            requests.login();
+                        }
+                    } catch (IOException e) {
+                        logger.warn("로컬 HTTP 요청 워밍업을 중단합니다. 나머지 워밍업은 계속합니다.", e);
+                        requests = null;
+                    }
+                }
+                completed++;
+            }
+        } catch (IOException | RuntimeException e) {
+            // 워밍업 실패로 기동을 막지는 않는다. 첫 요청들이 조금 느릴 뿐이다.
+            logger.warn("워밍업을 {}회 진행한 뒤 중단했습니다.", completed, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("워밍업 완료: {}회, {}ms", completed, Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+    }
+
+    /**
+     * minimum-idle 개수만큼 커넥션을 동시에 빌려서 풀이 그만큼 커넥션을 만들어 두게 한다.
+     */
+    private void fillPool(HikariDataSource pool) {
+        // minimum-idle을 지정하지 않으면 Hikari는 maximum-pool-size만큼 유지한다.
+        int size = pool.getMinimumIdle() < 0
+                ? pool.getMaximumPoolSize()
+                : Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize());
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                connections.add(pool.getConnection());
+            }
+        } catch (SQLException e) {
+            logger.warn("커넥션 풀({})을 {}개까지만 채웠습니다.", pool.getPoolName(), connections.size(), e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // 풀에 돌려주는 중 실패한 커넥션은 Hikari가 버린다.
+                }
+            }
+        }
+    }
+
+    private String warmUpTokens(Authentication authentication) {
+        String token = tokenProvider.createToken(authentication);
+        tokenProvider.validateToken(token);
+        tokenProvider.getAuthentication(token);
+        tokenProvider.introspect(token);
+        return token;
+    }
+
+    private void warmUpCodecs(String token) throws IOException {
+        objectMapper.writeValueAsBytes(new TokenDto(token));
+        objectMapper.writeValueAsBytes(UserDto.builder()
+                .username(WARMUP_USERNAME)
+                .nickname(WARMUP_USERNAME)
+                .authorityDtoSet(Collections.singleton(AuthorityDto.builder().authorityName("ROLE_USER").build()))
+                .build());
+        byte[] login = objectMapper.writeValueAsBytes(new LoginDto(WARMUP_USERNAME, WARMUP_PASSWORD));
+        objectMapper.readValue(login, LoginDto.class);
+    }
+
+    /**
+     * @return 로컬 주소를 만들 수 없으면 null (HTTP 워밍업만 건너뛴다.)
+     */
+    private LocalRequests localRequests(int port, long deadline) {
+        try {
+            return new LocalRequests(localBaseUri(port), loginBody(), deadline);
+        } catch (RuntimeException e) {
+            logger.warn("로컬 HTTP 요청 워밍업을 건너뜁니다.", e);
+            return null;
+        }
+    }
+
+    /**
+     * server.address(지정하지 않았거나 0.0.0.0이면 127.0.0.1), server.ssl, server.servlet.context-path를 반영한 주소
+     */
+    private URI localBaseUri(int port) {
+        ServerProperties server = serverProperties.getIfAvailable();
+        boolean ssl = server != null && server.getSsl() != null && server.getSsl().isEnabled();
+        InetAddress address = server == null ? null : server.getAddress();
+        String host = address == null || address.isAnyLocalAddress() ? "127.0.0.1" : address.getHostAddress();
+        if (host.indexOf(':') >= 0) {
+            host = "[" + host + "]";
+        }
+        String contextPath = server == null || server.getServlet().getContextPath() == null
+                ? ""
+                : server.getServlet().getContextPath();
+        return URI.create((ssl ? "https" : "http") + "://" + host + ":" + port + contextPath + "/");
+    }
+
+    private byte[] loginBody() {
+        try {
+            return objectMapper.writeValueAsBytes(new LoginDto(WARMUP_LOGIN_USERNAME, UUID.randomUUID().toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void warmUpQueries() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            userRepository.findOneByUsername(WARMUP_USERNAME);
+            userRepository.findOneWithAuthoritiesByUsername(WARMUP_USERNAME);
+        });
+    }
+
+    /**
+     * 로컬 포트로 실제 HTTP 요청을 보내 서블릿 필터 체인(JwtFilter 포함), 인가, 컨트롤러, 예외 처리를 실행한다.
+     * 응답 코드는 확인하지 않는다. (워밍업 유저는 없으므로 /api/user는 403, 로그인은 실패)
+     * 요청마다 deadline까지 남은 시간을 timeout으로 주므로 응답이 없어도 time-budget을 넘겨 기다리지 않는다.
+     */
+    private static class LocalRequests {
+
+        private final HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        private final URI hello;
+        private final URI login;
+        private final URI me;
+        private final byte[] loginBody;
+        private final long deadline;
+
+        LocalRequests(URI base, byte[] loginBody, long deadline) {
+            this.hello = base.resolve("api/hello");
+            this.login = base.resolve("api/authenticate");
+            this.me = base.resolve("api/user");
+            this.loginBody = loginBody;
+            this.deadline = deadline;
+        }
+
+        void login() throws IOException, InterruptedException {
+            send(request(login)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(loginBody)));
+        }
+
+        void send(String token) throws IOException, InterruptedException {
+            send(request(hello).GET());
+            send(request(me)
+                    .header(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + token)
+                    .GET());
+        }
+
+        private HttpRequest.Builder request(URI uri) {
+            // timeout은 0보다 커야 한다. deadline이 지났으면 워밍업 루프가 곧 끝난다.
+            long remainingNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), deadline - System.nanoTime());
+            return HttpRequest.newBuilder(uri).timeout(Duration.ofNanos(remainingNanos));
+        }
+
+        private void send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+}
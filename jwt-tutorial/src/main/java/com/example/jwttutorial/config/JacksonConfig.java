@@ -0,0 +1,35 @@
+package com.example.jwttutorial.config;
+
+import com.example.jwttutorial.user.dto.AuthDtoJsonModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Jackson 직렬화 성능 설정
+ *
+ * 1. 로그인/회원가입 DTO(TokenDto, UserDto, LoginDto)는 AuthDtoJsonModule의 전용 직렬화기를 사용한다.
+ * 2. 그 외 타입(ErrorDto, UserPageDto 등)은 Blackbird가 getter/setter 리플렉션 호출을 LambdaMetafactory로 만든 람다로 바꿔준다.
+ *    native image에서는 런타임에 클래스를 만들 수 없으므로 Blackbird를 등록하지 않는다.
+ *
+ * Module 타입의 빈은 Spring Boot가 ObjectMapper에 자동으로 등록한다.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public AuthDtoJsonModule authDtoJsonModule() {
+        return new AuthDtoJsonModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> builder.postConfigurer(objectMapper -> {
+            if (!NativeDetector.inNativeImage()) {
+                objectMapper.registerModule(new BlackbirdModule());
+            }
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.jwttutorial.config;
+
+import com.example.jwttutorial.security.authorization.PrecompiledPreAuthorizeAuthorizationManager;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authorization.method.AuthorizationManagerAfterMethodInterceptor;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PostFilterAuthorizationMethodInterceptor;
+import org.springframework.security.authorization.method.PreFilterAuthorizationMethodInterceptor;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+
+/**
+ * 메소드 수준 보안 설정
+ *
+ * SecurityConfig의 @EnableMethodSecurity(prePostEnabled = false)로 기본 인터셉터 등록을 끄고,
+ * @PreAuthorize는 PrecompiledPreAuthorizeAuthorizationManager로, 나머지(@PostAuthorize, @PreFilter, @PostFilter)는 기본 구현으로 직접 등록한다.
+ * 인터셉터는 다른 빈보다 먼저 만들어져야 하므로 static 메서드 + ROLE_INFRASTRUCTURE로 등록한다.
+ */
+@Configuration
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class MethodSecurityConfig {
+
+    private static final String DEFAULT_ROLE_PREFIX = "ROLE_";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            ObjectProvider<GrantedAuthorityDefaults> grantedAuthorityDefaults, ApplicationContext applicationContext) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setDefaultRolePrefix(rolePrefix(grantedAuthorityDefaults));
+        handler.setApplicationContext(applicationContext);
+        return handler;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static PrecompiledPreAuthorizeAuthorizationManager preAuthorizeAuthorizationManager(
+            MethodSecurityExpressionHandler methodSecurityExpressionHandler,
+            ObjectProvider<GrantedAuthorityDefaults> grantedAuthorityDefaults) {
+        return new PrecompiledPreAuthorizeAuthorizationManager(methodSecurityExpressionHandler, rolePrefix(grantedAuthorityDefaults));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(PrecompiledPreAuthorizeAuthorizationManager preAuthorizeAuthorizationManager) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(preAuthorizeAuthorizationManager);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor postAuthorizeAdvisor() {
+        return AuthorizationManagerAfterMethodInterceptor.postAuthorize();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preFilterAdvisor() {
+        return new PreFilterAuthorizationMethodInterceptor();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor postFilterAdvisor() {
+        return new PostFilterAuthorizationMethodInterceptor();
+    }
+
+    private static String rolePrefix(ObjectProvider<GrantedAuthorityDefaults> grantedAuthorityDefaults) {
+        GrantedAuthorityDefaults defaults = grantedAuthorityDefaults.getIfAvailable();
+        return defaults != null ? defaults.getRolePrefix() : DEFAULT_ROLE_PREFIX;
+    }
+}
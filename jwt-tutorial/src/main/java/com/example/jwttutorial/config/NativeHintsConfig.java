@@ -0,0 +1,56 @@
+package com.example.jwttutorial.config;
+
+import com.example.jwttutorial.token.dto.TokenIntrospectionDto;
+import com.example.jwttutorial.user.dto.AuthorityDto;
+import com.example.jwttutorial.user.dto.ErrorDto;
+import com.example.jwttutorial.user.dto.LoginDto;
+import com.example.jwttutorial.user.dto.TokenDto;
+import com.example.jwttutorial.user.dto.UserDto;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * GraalVM native image 빌드 시 필요한 리플렉션 힌트
+ *
+ * jjwt는 api 모듈에서 impl 모듈의 구현체를 클래스 이름으로 찾아 생성하기 때문에 힌트가 없으면 런타임에 실패한다.
+ * Lombok이 만든 DTO의 생성자/getter는 Jackson이 리플렉션으로 사용하므로 바인딩 힌트를 등록한다.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.JjwtRuntimeHints.class)
+@RegisterReflectionForBinding({LoginDto.class, TokenDto.class, UserDto.class, AuthorityDto.class, ErrorDto.class,
+        TokenIntrospectionDto.class})
+public class NativeHintsConfig {
+
+    static class JjwtRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        );
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.jwttutorial.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 현재 트랜잭션이 readOnly이면 레플리카 풀, 그렇지 않으면 프라이머리 풀에서 커넥션을 가져온다.
+ * 레플리카에서 커넥션을 얻지 못하면 프라이머리로 대신 처리한다.
+ *
+ * 트랜잭션 매니저는 readOnly 여부를 설정하기 전에 커넥션부터 얻으려 하기 때문에
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 실제 쿼리 시점에 라우팅되도록 해야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!REPLICA.equals(determineCurrentLookupKey())) {
+            return primary.getConnection();
+        }
+
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            logger.warn("레플리카 커넥션을 얻지 못해 프라이머리로 대신 처리합니다: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+}
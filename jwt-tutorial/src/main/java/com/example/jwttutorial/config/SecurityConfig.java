@@ -1,22 +1,31 @@
 package com.example.jwttutorial.config;
 
+import com.example.jwttutorial.audit.AuthAuditLog;
 import com.example.jwttutorial.security.jwt.JwtAccessDeniedHandler;
 import com.example.jwttutorial.security.jwt.JwtAuthenticationEntryPoint;
 import com.example.jwttutorial.security.jwt.JwtSecurityConfig;
 import com.example.jwttutorial.security.jwt.TokenProvider;
+import com.example.jwttutorial.security.password.CachingDaoAuthenticationProvider;
+import com.example.jwttutorial.security.password.CalibratedPasswordEncoder;
+import com.example.jwttutorial.security.password.LoginVerificationCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.filter.CorsFilter;
 
+import java.time.Duration;
+
 /**
  * 두 애너테이션은 스프링 시큐리티와 관련된 설정을 활성화하는 역할
  *
@@ -24,21 +33,50 @@ import org.springframework.web.filter.CorsFilter;
  * @EnableMethodSecurity 스프링 시큐리티의 메소드 수준 보안 설정을 활성화한다.
  * + @PreAuthorize, @PostAuthorize, @Secured 등과 같은 애너테이션을 사용하여 메소드의 호출에 대한 보안 규칙을 정의할 수 있다.
  * + 메소드 수준 보안은 각 메소드가 호출될 때 사용자의 인증 정보와 권한을 기반으로 해당 메소드가 실행될지 여부를 결정하는 데 사용됨.
+ * + prePostEnabled = false : @PreAuthorize 등의 인터셉터는 MethodSecurityConfig에서 직접 등록한다. (@PreAuthorize 식 사전 컴파일)
  */
 @Configuration
 @RequiredArgsConstructor
 @EnableWebSecurity
-@EnableMethodSecurity
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfig {
 
     private final TokenProvider tokenProvider;
     private final CorsFilter corsFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
+    private final AuthAuditLog authAuditLog;
+
+    /**
+     * 기동 시점에 해시 한 번이 password.target-time 근처가 되도록 비용을 보정한 PasswordEncoder
+     * 새 비밀번호는 password.encoding-id 방식으로 저장하고, 기존 bcrypt/argon2/pbkdf2 해시도 검증할 수 있다.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${password.encoding-id:bcrypt}") String encodingId,
+            @Value("${password.target-time:50ms}") Duration targetTime,
+            @Value("${password.tolerance:2.0}") double tolerance,
+            @Value("${password.argon2.memory-kb:16384}") int argon2MemoryKb,
+            @Value("${password.argon2.parallelism:1}") int argon2Parallelism) {
+        return CalibratedPasswordEncoder.calibrate(encodingId, targetTime, tolerance, argon2MemoryKb, argon2Parallelism);
+    }
 
+    /**
+     * 로그인(AuthenticationManager)에 사용할 provider
+     * 기본 DaoAuthenticationProvider와 같지만, login-cache.enabled: true 이면 최근에 검증한 자격 증명은 해시 비교를 생략한다.
+     * UserDetailsService는 credential-snapshot.enabled: true 이면 CredentialSnapshotUserDetailsService(@Primary)가 주입된다.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                            PasswordEncoder passwordEncoder,
+                                                            LoginVerificationCache loginVerificationCache) {
+        DaoAuthenticationProvider provider = new CachingDaoAuthenticationProvider(passwordEncoder, loginVerificationCache);
+        provider.setUserDetailsService(userDetailsService);
+        // 스냅샷으로 로그인하는 노드(credential-snapshot.enabled)는 DB에 쓰지 않으므로 재해시도 하지 않는다.
+        if (userDetailsService instanceof UserDetailsPasswordService userDetailsPasswordService) {
+            provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        }
+        return provider;
     }
 
     /**
@@ -75,6 +113,9 @@ public class SecurityConfig {
                 // 홈 화면, 토큰을 받기위한 api, 회원가입을 위한 api
                 .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
                         .requestMatchers("/api/hello", "/api/authenticate", "/api/signup").permitAll()
+                        // 헬스체크(프로브)는 토큰 없이, 나머지 actuator(메트릭 등)는 관리자만 접근
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
 
@@ -83,7 +124,7 @@ public class SecurityConfig {
                         sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
 
-                .apply(new JwtSecurityConfig(tokenProvider));
+                .apply(new JwtSecurityConfig(tokenProvider, authAuditLog));
 
         return http.build();
     }
@@ -0,0 +1,27 @@
+package com.example.jwttutorial.config;
+
+import com.example.jwttutorial.user.dto.LoginDto;
+import com.example.jwttutorial.user.dto.UserDto;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate Validator는 클래스별 제약 조건 메타데이터를 처음 검증할 때 만든다.
+ * 첫 로그인/회원가입 요청이 그 비용을 내지 않도록 readiness 이전(ApplicationStartedEvent)에 한 번 검증해 둔다.
+ * Spring MVC의 @Valid 검증도 같은 Validator 빈을 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationWarmup {
+
+    private final Validator validator;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        validator.validate(new LoginDto("warmup", "warmup"));
+        validator.validate(UserDto.builder().username("warmup").password("warmup").nickname("warmup").build());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.jwttutorial.credential;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * credential_change_log 테이블 매핑
+ * 로그인 정보(비밀번호, 활성화 여부, 권한)가 바뀐 username을 순서대로 남긴다.
+ * 저장/조회는 CredentialChangeLog가 JDBC로 직접 하고, 엔티티는 스키마 생성/검증용으로만 사용한다.
+ */
+@Entity
+@Table(name = "credential_change_log", indexes = @Index(name = "idx_credential_change_log_changed_at", columnList = "changed_at"))
+@Getter
+@NoArgsConstructor
+public class CredentialChange {
+
+    @Id
+    @Column(name = "change_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long changeId;
+
+    @Column(name = "username", length = 50, nullable = false)
+    private String username;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
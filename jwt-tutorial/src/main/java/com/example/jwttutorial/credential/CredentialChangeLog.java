@@ -0,0 +1,115 @@
+package com.example.jwttutorial.credential;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 로그인 정보가 바뀐 username을 credential_change_log에 남기고, 스냅샷 노드가 그 이후 변경분을 읽어 가는 변경 로그
+ *
+ * record()는 호출한 쪽의 트랜잭션에 참여하므로 유저 변경이 롤백되면 로그도 함께 롤백된다.
+ * 애플리케이션을 거치지 않은 변경(운영자 SQL 등)은 db/credential-snapshot.sql의 트리거로 남긴다.
+ *
+ * 스냅샷 노드가 없으면 읽어 갈 곳이 없으므로 credential-snapshot.change-log-enabled: true 일 때만 기록한다. (기본 꺼짐)
+ * 스냅샷 노드를 두는 배포에서는 회원가입/로그인을 처리하는 모든 노드에서 켜야 한다.
+ * 보관 기간이 지난 행은 CredentialChangeLogRetention이 지운다.
+ */
+@Component
+public class CredentialChangeLog {
+
+    private static final String INSERT_SQL = "insert into credential_change_log (username, changed_at) values (?, ?)";
+
+    private static final int IN_BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final boolean enabled;
+
+    public CredentialChangeLog(DataSource dataSource,
+                               @Value("${credential-snapshot.change-log-enabled:false}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String username) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, username, Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * @return 지금까지 남은 가장 큰 change_id (없으면 0)
+     */
+    public long lastChangeId() {
+        Long lastChangeId = jdbcTemplate.queryForObject("select max(change_id) from credential_change_log", Long.class);
+        return lastChangeId == null ? 0 : lastChangeId;
+    }
+
+    /**
+     * afterChangeId 이후의 변경을 change_id 순서로 최대 limit건 가져온다.
+     */
+    public List<Change> changesAfter(long afterChangeId, int limit) {
+        return jdbcTemplate.query(
+                "select change_id, username from credential_change_log where change_id > ? order by change_id limit ?",
+                (rs, rowNum) -> new Change(rs.getLong(1), rs.getString(2)),
+                afterChangeId, limit);
+    }
+
+    /**
+     * 지정한 change_id 중 지금 보이는(커밋된) 변경을 가져온다. (건너뛴 change_id 재확인용)
+     */
+    public List<Change> changesIn(List<Long> changeIds) {
+        List<Change> changes = new ArrayList<>();
+        for (int from = 0; from < changeIds.size(); from += IN_BATCH_SIZE) {
+            Collection<Long> batch = changeIds.subList(from, Math.min(changeIds.size(), from + IN_BATCH_SIZE));
+            changes.addAll(namedParameterJdbcTemplate.query(
+                    "select change_id, username from credential_change_log where change_id in (:changeIds)",
+                    Map.of("changeIds", batch),
+                    (rs, rowNum) -> new Change(rs.getLong(1), rs.getString(2))));
+        }
+        return changes;
+    }
+
+    /**
+     * (afterChangeId, toChangeId] 범위에서 지금 보이는 change_id 목록
+     */
+    public List<Long> changeIdsBetween(long afterChangeId, long toChangeId) {
+        return jdbcTemplate.queryForList(
+                "select change_id from credential_change_log where change_id > ? and change_id <= ?",
+                Long.class, afterChangeId, toChangeId);
+    }
+
+    /**
+     * 보관 기간이 지난 로그를 지운다. (스냅샷 주기보다 충분히 길게 잡는다.)
+     *
+     * @return 지운 행 수
+     */
+    public int deleteBefore(Instant changedAt) {
+        return jdbcTemplate.update("delete from credential_change_log where changed_at < ?", Timestamp.from(changedAt));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Change {
+
+        private final long changeId;
+        private final String username;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.jwttutorial.credential;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * credential_change_log에서 change-log-retention이 지난 행을 retention-interval마다 지운다.
+ *
+ * 변경 로그를 기록하는 노드(change-log-enabled)마다 실행되므로 스냅샷 노드가 없거나 멈춰 있어도 테이블이 계속 커지지 않는다.
+ * 여러 노드가 같은 조건으로 지우므로 동시에 실행되어도 결과는 같다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credential-snapshot", name = "change-log-enabled", havingValue = "true")
+public class CredentialChangeLogRetention implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialChangeLogRetention.class);
+
+    private final CredentialChangeLog changeLog;
+    private final Duration retention;
+    private final Duration retentionInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    public CredentialChangeLogRetention(CredentialChangeLog changeLog,
+                                        @Value("${credential-snapshot.change-log-retention:1d}") Duration retention,
+                                        @Value("${credential-snapshot.change-log-retention-interval:1h}") Duration retentionInterval) {
+        this.changeLog = changeLog;
+        this.retention = retention;
+        this.retentionInterval = retentionInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (retention.isZero()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credential-change-log-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::deleteExpiredSafely,
+                retentionInterval.toMillis(), retentionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public int deleteExpired() {
+        return changeLog.deleteBefore(Instant.now().minus(retention));
+    }
+
+    private void deleteExpiredSafely() {
+        try {
+            int deleted = deleteExpired();
+            logger.debug("로그인 정보 변경 로그 {}건을 지웠습니다.", deleted);
+        } catch (RuntimeException e) {
+            logger.warn("보관 기간이 지난 로그인 정보 변경 로그를 지우지 못했습니다.", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.jwttutorial.credential;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.jwttutorial.credential.CredentialSnapshot.fold;
+import static com.example.jwttutorial.credential.CredentialSnapshot.hash;
+
+/**
+ * 스냅샷 이후 변경 로그로 읽어 온 유저들 (스냅샷보다 우선한다.)
+ *
+ * 불변 객체이고, 변경이 있을 때마다 새 객체를 만들어 교체한다. (copy-on-write)
+ * 각 Entry는 DB에서 읽은 시각(loadedAt, System.nanoTime)을 가진다. 그보다 나중에 읽기 시작한 스냅샷에는 같거나 더 새로운 값이 들어 있다.
+ * 조회는 CredentialSnapshot과 같은 해시/비교 규칙의 선형 탐사 배열이라 객체를 만들지 않는다.
+ */
+class CredentialOverlay {
+
+    static final CredentialOverlay EMPTY = new CredentialOverlay(new Entry[2], 0);
+
+    private final Entry[] table;
+    private final int size;
+
+    private CredentialOverlay(Entry[] table, int size) {
+        this.table = table;
+        this.size = size;
+    }
+
+    /**
+     * @return 없으면 null. 삭제된 유저는 isDeleted()가 true인 Entry
+     */
+    Entry lookup(String username) {
+        if (size == 0) {
+            return null;
+        }
+        int mask = table.length - 1;
+        int hash = hash(username);
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            Entry entry = table[slot];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.hash == hash && entry.username.equalsIgnoreCase(username)) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * 같은 유저는 나중에 읽은 쪽을 남긴다.
+     */
+    CredentialOverlay with(Collection<Entry> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Map<String, Entry> merged = entries();
+        for (Entry change : changes) {
+            merged.merge(key(change.username), change, (current, next) -> next.loadedAt - current.loadedAt >= 0 ? next : current);
+        }
+        return of(merged.values());
+    }
+
+    /**
+     * 새 스냅샷에 이미 들어간 변경(스냅샷을 읽기 시작한 시각 scanStartedAt 전에 읽은 Entry)을 뺀다.
+     */
+    CredentialOverlay retainAfter(long scanStartedAt) {
+        Map<String, Entry> retained = entries();
+        retained.values().removeIf(entry -> entry.loadedAt - scanStartedAt < 0);
+        return retained.size() == size ? this : of(retained.values());
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Map<String, Entry> entries() {
+        Map<String, Entry> entries = new HashMap<>();
+        for (Entry entry : table) {
+            if (entry != null) {
+                entries.put(key(entry.username), entry);
+            }
+        }
+        return entries;
+    }
+
+    private static CredentialOverlay of(Collection<Entry> entries) {
+        if (entries.isEmpty()) {
+            return EMPTY;
+        }
+        // 사용률 50% 이하
+        Entry[] table = new Entry[Integer.highestOneBit(entries.size() * 2 - 1) << 1];
+        int mask = table.length - 1;
+        for (Entry entry : entries) {
+            int slot = entry.hash & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry;
+        }
+        return new CredentialOverlay(table, entries.size());
+    }
+
+    private static String key(String username) {
+        StringBuilder key = new StringBuilder(username.length());
+        for (int i = 0; i < username.length(); i++) {
+            key.append(fold(username.charAt(i)));
+        }
+        return key.toString();
+    }
+
+    static final class Entry {
+
+        private final long loadedAt;
+        private final String username;
+        private final String password;
+        private final boolean activated;
+        private final List<GrantedAuthority> authorities;
+        private final boolean deleted;
+        private final int hash;
+
+        private Entry(long loadedAt, String username, String password, boolean activated,
+                      List<GrantedAuthority> authorities, boolean deleted) {
+            this.loadedAt = loadedAt;
+            this.username = username;
+            this.password = password;
+            this.activated = activated;
+            this.authorities = authorities;
+            this.deleted = deleted;
+            this.hash = hash(username);
+        }
+
+        static Entry of(long loadedAt, String username, String password, boolean activated, List<GrantedAuthority> authorities) {
+            return new Entry(loadedAt, username, password, activated, authorities, false);
+        }
+
+        static Entry deleted(long loadedAt, String username) {
+            return new Entry(loadedAt, username, null, false, List.of(), true);
+        }
+
+        boolean isDeleted() {
+            return deleted;
+        }
+
+        UserDetails toUserDetails() {
+            return new User(username, password, activated, true, true, true, authorities);
+        }
+    }
+}
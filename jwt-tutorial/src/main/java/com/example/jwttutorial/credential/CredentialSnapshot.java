@@ -0,0 +1,287 @@
+package com.example.jwttutorial.credential;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 맵(mmap)으로 연 로그인 정보 스냅샷 파일 (읽기 전용)
+ *
+ * 파일 형식 (big-endian)
+ * [헤더 64B]   magic, version, change_id, 생성 시각, 유저 수, 슬롯 수, 각 구간 위치/길이, CRC32 2개
+ * [권한 목록]   서로 다른 권한 조합들. 레코드는 권한 이름 대신 조합 번호만 가진다.
+ * [인덱스]     슬롯 수(2의 거듭제곱) x 8B. (username 해시 << 32) | (레코드 위치 + 1), 0은 빈 슬롯
+ * [레코드]     username 길이(2B), username(UTF-16), 플래그(1B), 권한 조합 번호(2B), 해시 길이(2B), 비밀번호 해시(UTF-8)
+ *
+ * 인덱스와 레코드는 힙 밖(페이지 캐시)에 있으므로 유저 수가 많아도 GC 대상이 늘지 않는다.
+ * lookup()은 해시 계산, 인덱스 탐색, username 비교까지 객체를 만들지 않고,
+ * 찾았을 때 돌려줄 UserDetails(와 비밀번호 해시 문자열)만 만든다.
+ * username은 DB(MySQL 기본 collation)와 같이 대소문자를 구분하지 않고 비교한다.
+ *
+ * 절대 위치 get만 사용하므로 여러 스레드가 동시에 읽어도 된다.
+ */
+public class CredentialSnapshot {
+
+    static final int MAGIC = 0x43524431; // "CRD1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int MAX_FIELD_LENGTH = 0xFFFF;
+    static final byte FLAG_ACTIVATED = 1;
+    static final String FILE_PREFIX = "credentials-";
+    static final String FILE_SUFFIX = ".snap";
+
+    private static final int NO_MATCH = 0;
+    private static final int EXACT_MATCH = 1;
+    private static final int IGNORE_CASE_MATCH = 2;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long changeId;
+    private final long createdAtMillis;
+    private final int entryCount;
+    private final int slotMask;
+    private final int indexOffset;
+    private final int dataOffset;
+    private final List<GrantedAuthority>[] roleSets;
+
+    private CredentialSnapshot(Path path, MappedByteBuffer buffer, long changeId, long createdAtMillis, int entryCount,
+                               int slotCount, int indexOffset, int dataOffset, List<GrantedAuthority>[] roleSets) {
+        this.path = path;
+        this.buffer = buffer;
+        this.changeId = changeId;
+        this.createdAtMillis = createdAtMillis;
+        this.entryCount = entryCount;
+        this.slotMask = slotCount - 1;
+        this.indexOffset = indexOffset;
+        this.dataOffset = dataOffset;
+        this.roleSets = roleSets;
+    }
+
+    /**
+     * 파일을 메모리 맵으로 열고 헤더와 CRC를 검증한다. 검증에 실패하면 IOException
+     */
+    public static CredentialSnapshot open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException(path + " -> 스냅샷 파일 크기가 잘못되었습니다: " + size);
+            }
+            // 채널을 닫아도 매핑은 버퍼가 GC될 때까지 유지된다.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(path + " -> 스냅샷 파일 형식이 아닙니다.");
+        }
+        long changeId = buffer.getLong(8);
+        long createdAtMillis = buffer.getLong(16);
+        int entryCount = buffer.getInt(24);
+        int slotCount = buffer.getInt(28);
+        int roleSetsOffset = buffer.getInt(32);
+        int indexOffset = buffer.getInt(36);
+        int dataOffset = buffer.getInt(40);
+        int dataLength = buffer.getInt(44);
+
+        // 위치 계산은 long으로 해서 int 오버플로로 검증을 통과하는 일이 없게 한다.
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || entryCount < 0 || entryCount > slotCount / 2
+                || roleSetsOffset != HEADER_SIZE || indexOffset < roleSetsOffset || dataLength < 0
+                || (long) indexOffset + (long) slotCount * Long.BYTES != dataOffset
+                || (long) dataOffset + dataLength != buffer.capacity()) {
+            throw new IOException(path + " -> 스냅샷 헤더가 잘못되었습니다.");
+        }
+
+        // 권한 목록은 길이 필드를 따라가며 읽으므로, CRC 검증 전에 인덱스 시작 위치를 넘지 않는지 확인한다.
+        int roleSetsLength = roleSetsLength(path, buffer, roleSetsOffset, indexOffset);
+        CRC32 metaCrc = new CRC32();
+        metaCrc.update(buffer.slice(roleSetsOffset, roleSetsLength));
+        metaCrc.update(buffer.slice(indexOffset, dataOffset - indexOffset));
+        CRC32 dataCrc = new CRC32();
+        dataCrc.update(buffer.slice(dataOffset, dataLength));
+        if (metaCrc.getValue() != buffer.getLong(48) || dataCrc.getValue() != buffer.getLong(56)) {
+            throw new IOException(path + " -> 스냅샷 CRC가 일치하지 않습니다.");
+        }
+
+        return new CredentialSnapshot(path, buffer, changeId, createdAtMillis, entryCount,
+                slotCount, indexOffset, dataOffset, readRoleSets(buffer, roleSetsOffset));
+    }
+
+    /**
+     * @return 없으면 null
+     */
+    public UserDetails lookup(String username) {
+        int hash = hash(username);
+        int slot = hash & slotMask;
+        while (true) {
+            long entry = buffer.getLong(indexOffset + slot * Long.BYTES);
+            if (entry == 0) {
+                return null;
+            }
+            if ((int) (entry >>> 32) == hash) {
+                int record = dataOffset + (int) (entry & 0xFFFFFFFFL) - 1;
+                int match = compareUsername(record, username);
+                if (match != NO_MATCH) {
+                    return readUser(record, match == EXACT_MATCH ? username : null);
+                }
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private int compareUsername(int record, String username) {
+        int length = buffer.getShort(record) & 0xFFFF;
+        if (length != username.length()) {
+            return NO_MATCH;
+        }
+        int result = EXACT_MATCH;
+        int position = record + 2;
+        for (int i = 0; i < length; i++, position += 2) {
+            char stored = buffer.getChar(position);
+            char given = username.charAt(i);
+            if (stored != given) {
+                if (fold(stored) != fold(given)) {
+                    return NO_MATCH;
+                }
+                result = IGNORE_CASE_MATCH;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param username 입력과 저장된 username이 정확히 같으면 입력 문자열을 그대로 사용한다. null이면 저장된 값으로 만든다.
+     */
+    private UserDetails readUser(int record, String username) {
+        int usernameLength = buffer.getShort(record) & 0xFFFF;
+        int position = record + 2 + usernameLength * 2;
+        if (username == null) {
+            char[] chars = new char[usernameLength];
+            for (int i = 0; i < usernameLength; i++) {
+                chars[i] = buffer.getChar(record + 2 + i * 2);
+            }
+            username = new String(chars);
+        }
+
+        boolean activated = (buffer.get(position) & FLAG_ACTIVATED) != 0;
+        int roleSet = buffer.getShort(position + 1) & 0xFFFF;
+        int passwordLength = buffer.getShort(position + 3) & 0xFFFF;
+        byte[] password = new byte[passwordLength];
+        buffer.get(position + 5, password);
+
+        // 비활성 유저는 DaoAuthenticationProvider가 DisabledException으로 거절한다.
+        return new User(username, new String(password, StandardCharsets.UTF_8),
+                activated, true, true, true, roleSets[roleSet]);
+    }
+
+    /**
+     * 권한 목록 구간의 길이. 구간이 limit(인덱스 시작 위치)를 넘으면 IOException
+     */
+    private static int roleSetsLength(Path path, MappedByteBuffer buffer, int offset, int limit) throws IOException {
+        long position = offset;
+        int count = readLength(path, buffer, position, Integer.BYTES, limit);
+        position += Integer.BYTES;
+        if (count < 0 || count > MAX_FIELD_LENGTH + 1) {
+            throw new IOException(path + " -> 스냅샷 권한 목록이 잘못되었습니다.");
+        }
+        for (int i = 0; i < count; i++) {
+            int roles = readLength(path, buffer, position, Short.BYTES, limit);
+            position += Short.BYTES;
+            for (int j = 0; j < roles; j++) {
+                position += Short.BYTES + (long) readLength(path, buffer, position, Short.BYTES, limit) * Character.BYTES;
+            }
+        }
+        if (position > limit) {
+            throw new IOException(path + " -> 스냅샷 권한 목록이 인덱스 영역을 넘습니다.");
+        }
+        return (int) (position - offset);
+    }
+
+    /**
+     * limit 안에 있는 길이 필드(int 또는 unsigned short)를 읽는다.
+     */
+    private static int readLength(Path path, MappedByteBuffer buffer, long position, int size, int limit) throws IOException {
+        if (position + size > limit) {
+            throw new IOException(path + " -> 스냅샷 권한 목록이 인덱스 영역을 넘습니다.");
+        }
+        return size == Integer.BYTES ? buffer.getInt((int) position) : buffer.getShort((int) position) & 0xFFFF;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<GrantedAuthority>[] readRoleSets(MappedByteBuffer buffer, int offset) {
+        Map<String, GrantedAuthority> authorities = new HashMap<>();
+        int position = offset;
+        int count = buffer.getInt(position);
+        position += 4;
+
+        List<GrantedAuthority>[] roleSets = new List[count];
+        for (int i = 0; i < count; i++) {
+            int roles = buffer.getShort(position) & 0xFFFF;
+            position += 2;
+            List<GrantedAuthority> roleSet = new ArrayList<>(roles);
+            for (int j = 0; j < roles; j++) {
+                int length = buffer.getShort(position) & 0xFFFF;
+                position += 2;
+                char[] chars = new char[length];
+                for (int k = 0; k < length; k++, position += 2) {
+                    chars[k] = buffer.getChar(position);
+                }
+                roleSet.add(authorities.computeIfAbsent(new String(chars), SimpleGrantedAuthority::new));
+            }
+            roleSets[i] = List.copyOf(roleSet);
+        }
+        return roleSets;
+    }
+
+    /**
+     * String.equalsIgnoreCase와 같은 규칙으로 같다고 보는 문자는 같은 값이 되도록 접는다.
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * 대소문자를 구분하지 않는 username 해시 (객체를 만들지 않는다.)
+     */
+    static int hash(CharSequence username) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < username.length(); i++) {
+            h ^= fold(username.charAt(i));
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getChangeId() {
+        return changeId;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+}
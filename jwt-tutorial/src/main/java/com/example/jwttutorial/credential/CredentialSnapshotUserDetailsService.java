@@ -0,0 +1,525 @@
+package com.example.jwttutorial.credential;
+
+import com.example.jwttutorial.util.IdGapTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 로그인 때 DB를 조회하지 않고, 메모리 맵 스냅샷(CredentialSnapshot)으로 유저를 찾는 UserDetailsService
+ * (credential-snapshot.enabled: true 인 노드에서만 CustomUserDetailsService 대신 사용한다.)
+ *
+ * 1. 기동 시(readiness 이전) DB에서 스냅샷을 만든다. 스냅샷 쿼리가 실패하면(레플리카 장애 등) 디렉터리에 남아 있는 가장 최근 스냅샷을 연다.
+ *    둘 다 안 되면 startup-timeout까지 짧은 간격으로 다시 만들어 보고, 그래도 없으면 기동을 실패시킨다.
+ *    (스냅샷 없이 readiness가 되면 모든 로그인이 실패하므로)
+ *    애플리케이션 자체(JPA 스키마 검증, 커넥션 풀)가 기동할 때 DB가 필요하므로 DB 없이 기동할 수는 없다.
+ * 2. interval마다 새 스냅샷을 만들어 원자적으로 교체한다. 실패하면 기존 스냅샷을 계속 사용한다.
+ * 3. 스냅샷 사이의 변경(회원가입, 비밀번호 변경 등)은 change-log-poll-interval마다 credential_change_log를 읽어
+ *    해당 유저의 현재 행을 CredentialOverlay에 반영한다. 조회는 overlay -> 스냅샷 순서로 한다.
+ *    change_id는 커밋 순서대로 보이지 않으므로 건너뛴 change_id는 IdGapTracker로 기억해 두었다가 다시 조회한다.
+ *
+ * 스냅샷 생성과 변경 로그 조회는 서로 다른 스레드/락에서 실행되므로, 스냅샷을 만드는 동안에도 변경은 계속 반영된다.
+ * 스냅샷 쿼리는 query-timeout, 변경 로그 조회는 change-log-query-timeout을 넘기면 실패로 처리하고 다음 주기에 다시 시도한다.
+ *
+ * DB 장애 중에도 마지막 스냅샷 + overlay로 로그인은 계속 처리되고, 반영이 늦어질 뿐이다. (credential.snapshot.age 메트릭)
+ * 비밀번호 재해시(upgradeEncoding)는 DB 쓰기가 필요하므로 이 노드에서는 하지 않는다.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "credential-snapshot", name = "enabled", havingValue = "true")
+public class CredentialSnapshotUserDetailsService implements UserDetailsService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialSnapshotUserDetailsService.class);
+
+    private static final String SNAPSHOT_SQL =
+            "select u.user_id, u.username, u.password, u.activated, ua.authority_name " +
+            "from user u left join user_authority ua on ua.user_id = u.user_id " +
+            "order by u.user_id, ua.authority_name";
+
+    private static final String CHANGED_USERS_SQL =
+            "select u.user_id, u.username, u.password, u.activated, ua.authority_name " +
+            "from user u left join user_authority ua on ua.user_id = u.user_id " +
+            "where u.username in (:usernames) " +
+            "order by u.user_id, ua.authority_name";
+
+    private static final int CHANGE_BATCH_SIZE = 1_000;
+
+    // 변경을 기록하는 트랜잭션이 이보다 오래 커밋되지 않으면 그 change_id는 다시 조회하지 않는다.
+    private static final Duration MAX_TRANSACTION_TIME = Duration.ofMinutes(1);
+    private static final int MAX_GAPS = 10_000;
+
+    private static final Duration STARTUP_RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration STARTUP_RETRY_MAX_BACKOFF = Duration.ofSeconds(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate changeLogTransaction;
+    private final Duration queryTimeout;
+    private final int fetchSize;
+    private final CredentialChangeLog changeLog;
+    private final Path directory;
+    private final Duration interval;
+    private final Duration changeLogPollInterval;
+    private final Duration startupTimeout;
+
+    private final Object overlayLock = new Object();
+    private volatile CredentialSnapshot snapshot;
+    private volatile CredentialOverlay overlay = CredentialOverlay.EMPTY;
+    // 현재 스냅샷을 읽기 시작한 시각 (디렉터리에서 연 스냅샷이면 null, overlayLock)
+    private Long snapshotScanStartedAt;
+
+    // 읽은 change_id와 건너뛴 change_id (pollLock, 첫 스냅샷을 만들거나 연 뒤에 생긴다.)
+    private final Object pollLock = new Object();
+    private IdGapTracker changeIds;
+
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+    private final LongAdder snapshotFailures = new LongAdder();
+    private final LongAdder changeLogFailures = new LongAdder();
+
+    private ScheduledExecutorService snapshotScheduler;
+    private ScheduledExecutorService changeLogScheduler;
+
+    public CredentialSnapshotUserDetailsService(DataSource dataSource,
+                                                PlatformTransactionManager transactionManager,
+                                                CredentialChangeLog changeLog,
+                                                @Value("${credential-snapshot.directory:${java.io.tmpdir}/jwt-tutorial/credentials}") Path directory,
+                                                @Value("${credential-snapshot.interval:10m}") Duration interval,
+                                                @Value("${credential-snapshot.change-log-poll-interval:1s}") Duration changeLogPollInterval,
+                                                @Value("${credential-snapshot.query-timeout:5m}") Duration queryTimeout,
+                                                @Value("${credential-snapshot.change-log-query-timeout:10s}") Duration changeLogQueryTimeout,
+                                                @Value("${credential-snapshot.startup-timeout:1m}") Duration startupTimeout,
+                                                @Value("${export.fetch-size:1000}") int fetchSize,
+                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // 트랜잭션 timeout은 안에서 실행하는 JdbcTemplate 쿼리의 statement timeout으로도 적용된다.
+        this.changeLogTransaction = new TransactionTemplate(transactionManager);
+        this.changeLogTransaction.setReadOnly(true);
+        this.changeLogTransaction.setTimeout((int) Math.max(1, changeLogQueryTimeout.toSeconds()));
+        this.queryTimeout = queryTimeout;
+        this.fetchSize = fetchSize;
+        this.changeLog = changeLog;
+        this.directory = directory;
+        this.interval = interval;
+        this.changeLogPollInterval = changeLogPollInterval;
+        this.startupTimeout = startupTimeout;
+        meterRegistry.ifAvailable(this::bindMetrics);
+        if (!changeLog.isEnabled()) {
+            logger.warn("credential-snapshot.change-log-enabled가 꺼져 있습니다. 스냅샷 사이의 변경은 변경 로그를 남기는 노드나 트리거가 있어야 반영됩니다.");
+        }
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("credential.snapshot.entries", this, s -> s.snapshot == null ? 0 : s.snapshot.getEntryCount())
+                .register(registry);
+        Gauge.builder("credential.snapshot.overlay.entries", this, s -> s.overlay.size()).register(registry);
+        Gauge.builder("credential.snapshot.age", this,
+                        s -> s.snapshot == null ? Double.NaN : (System.currentTimeMillis() - s.snapshot.getCreatedAtMillis()) / 1000.0)
+                .baseUnit("seconds").register(registry);
+        FunctionCounter.builder("credential.snapshot.failures", snapshotFailures, LongAdder::sum)
+                .tag("task", "snapshot").register(registry);
+        FunctionCounter.builder("credential.snapshot.failures", changeLogFailures, LongAdder::sum)
+                .tag("task", "change-log").register(registry);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        CredentialOverlay.Entry changed = overlay.lookup(username);
+        if (changed != null) {
+            if (changed.isDeleted()) {
+                throw new UsernameNotFoundException(username + " -> 스냅샷에서 찾을 수 없습니다.");
+            }
+            return changed.toUserDetails();
+        }
+
+        CredentialSnapshot current = snapshot;
+        if (current == null) {
+            throw new InternalAuthenticationServiceException("로그인 정보 스냅샷이 아직 준비되지 않았습니다.");
+        }
+        UserDetails userDetails = current.lookup(username);
+        if (userDetails == null) {
+            throw new UsernameNotFoundException(username + " -> 스냅샷에서 찾을 수 없습니다.");
+        }
+        return userDetails;
+    }
+
+    /**
+     * ApplicationStartedEvent는 readiness 이전이므로 스냅샷이 준비된 뒤에 트래픽을 받는다.
+     * 스냅샷을 준비하지 못하면 IllegalStateException으로 기동을 실패시킨다.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        loadInitialSnapshot();
+
+        snapshotScheduler = newScheduler("credential-snapshot");
+        snapshotScheduler.scheduleWithFixedDelay(this::refreshSafely,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        // 스냅샷 생성이 오래 걸리거나 멈춰도 변경 반영은 계속되도록 별도 스레드에서 실행한다.
+        changeLogScheduler = newScheduler("credential-change-log");
+        changeLogScheduler.scheduleWithFixedDelay(this::pollChangesSafely,
+                changeLogPollInterval.toMillis(), changeLogPollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void loadInitialSnapshot() {
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        Duration backoff = STARTUP_RETRY_MIN_BACKOFF;
+        boolean openedLatest = false;
+        while (true) {
+            try {
+                refresh();
+                return;
+            } catch (RuntimeException e) {
+                snapshotFailures.increment();
+                if (!openedLatest) {
+                    logger.warn("DB에서 로그인 정보 스냅샷을 만들지 못했습니다. 디렉터리의 최근 스냅샷을 사용합니다.", e);
+                    openedLatest = true;
+                    openLatest();
+                    if (snapshot != null) {
+                        return;
+                    }
+                }
+                if (System.nanoTime() + backoff.toNanos() - deadline > 0) {
+                    throw new IllegalStateException(
+                            "로그인 정보 스냅샷을 " + startupTimeout + " 안에 만들거나 열지 못했습니다: " + directory, e);
+                }
+                logger.warn("로그인 정보 스냅샷이 없습니다. {}ms 후 다시 만듭니다.", backoff.toMillis(), e);
+            }
+            try {
+                Thread.sleep(backoff.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("로그인 정보 스냅샷을 기다리는 중 중단되었습니다.", e);
+            }
+            backoff = backoff.multipliedBy(2).compareTo(STARTUP_RETRY_MAX_BACKOFF) > 0
+                    ? STARTUP_RETRY_MAX_BACKOFF
+                    : backoff.multipliedBy(2);
+        }
+    }
+
+    /**
+     * DB 전체를 읽어 새 스냅샷 파일을 만들고 교체한다.
+     */
+    public synchronized void refresh() {
+        // 스캔 트랜잭션을 시작하기 전의 시각. 이보다 먼저 읽어 둔 overlay 값은 새 스냅샷에 같거나 더 새로운 값으로 들어 있다.
+        long scanStartedAt = System.nanoTime();
+        // readOnly 트랜잭션이므로 레플리카가 설정되어 있으면 레플리카에서 읽는다. (UserExportService와 같은 방식)
+        Path file = readOnlyTransaction.execute(status -> {
+            long changeId = changeLog.lastChangeId();
+            seedChangeIds(changeId);
+            try (CredentialSnapshotWriter writer = new CredentialSnapshotWriter(directory, changeId)) {
+                UserRowCollector collector = new UserRowCollector((username, password, activated, roles) -> {
+                    try {
+                        writer.add(username, password, activated, roles);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            SNAPSHOT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setQueryTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+                    return statement;
+                }, collector);
+                collector.finish();
+                return writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        swap(open(file), scanStartedAt);
+    }
+
+    /**
+     * 마지막으로 읽은 change_id 이후의 변경과, 이전에 건너뛴 change_id 중 이제 보이는 변경을 overlay에 반영한다.
+     */
+    public void pollChanges() {
+        synchronized (pollLock) {
+            if (changeIds == null) {
+                return;
+            }
+            List<Long> gaps = changeIds.pendingGaps();
+            if (!gaps.isEmpty()) {
+                applyChanges(() -> changeLog.changesIn(gaps));
+            }
+            int read;
+            do {
+                read = applyChanges(() -> changeLog.changesAfter(changeIds.highWaterMark(), CHANGE_BATCH_SIZE));
+            } while (read == CHANGE_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * 변경 로그를 읽고 해당 유저들의 현재 행을 overlay에 반영한다.
+     *
+     * @return 읽은 변경 로그 수
+     */
+    private int applyChanges(Supplier<List<CredentialChangeLog.Change>> query) {
+        List<CredentialChangeLog.Change> changes = new ArrayList<>();
+        // Entry에 넣을 읽은 시각은 쿼리가 끝난 뒤에 정해진다.
+        Map<String, LongFunction<CredentialOverlay.Entry>> users = new LinkedHashMap<>();
+        long loadedAt = changeLogTransaction.execute(status -> {
+            changes.addAll(query.get());
+            Set<String> usernames = new LinkedHashSet<>();
+            for (CredentialChangeLog.Change change : changes) {
+                usernames.add(change.getUsername());
+            }
+            if (!usernames.isEmpty()) {
+                UserRowCollector collector = new UserRowCollector((username, password, activated, roles) -> users.put(
+                        username.toLowerCase(),
+                        at -> CredentialOverlay.Entry.of(at, username, password, activated, toAuthorities(roles))));
+                namedParameterJdbcTemplate.query(CHANGED_USERS_SQL, Map.of("usernames", usernames), collector);
+                collector.finish();
+                for (String username : usernames) {
+                    // 변경 로그에는 있는데 user 행이 없으면 삭제된 유저
+                    users.putIfAbsent(username.toLowerCase(), at -> CredentialOverlay.Entry.deleted(at, username));
+                }
+            }
+            return System.nanoTime();
+        });
+
+        if (!users.isEmpty()) {
+            List<CredentialOverlay.Entry> entries = new ArrayList<>(users.size());
+            for (LongFunction<CredentialOverlay.Entry> user : users.values()) {
+                entries.add(user.apply(loadedAt));
+            }
+            synchronized (overlayLock) {
+                // 그 사이 이 값보다 나중에 읽기 시작한 스냅샷으로 교체되었다면 스냅샷 쪽이 같거나 더 새롭다.
+                if (snapshotScanStartedAt == null || loadedAt - snapshotScanStartedAt >= 0) {
+                    overlay = overlay.with(entries);
+                }
+            }
+        }
+        for (CredentialChangeLog.Change change : changes) {
+            changeIds.observe(change.getChangeId());
+        }
+        return changes.size();
+    }
+
+    /**
+     * 첫 스냅샷과 같은 트랜잭션에서 change_id 추적을 시작한다.
+     * changeId 이하에서 지금 보이지 않는 change_id는 스냅샷에도 빠져 있으므로 gap으로 남겨 다시 조회한다.
+     */
+    private void seedChangeIds(long changeId) {
+        synchronized (pollLock) {
+            if (changeIds != null) {
+                return;
+            }
+        }
+        long from = Math.max(0, changeId - MAX_GAPS);
+        IdGapTracker tracker = new IdGapTracker(from, MAX_TRANSACTION_TIME, MAX_GAPS);
+        for (long visible : changeLog.changeIdsBetween(from, changeId)) {
+            tracker.observe(visible);
+        }
+        tracker.observe(changeId);
+        synchronized (pollLock) {
+            if (changeIds == null) {
+                changeIds = tracker;
+            }
+        }
+    }
+
+    /**
+     * @param scanStartedAt 스냅샷을 읽기 시작한 시각. 그 전에 읽은 overlay 값은 뺀다. (디렉터리에서 연 스냅샷이면 null)
+     */
+    private void swap(CredentialSnapshot next, Long scanStartedAt) {
+        CredentialSnapshot previous;
+        synchronized (overlayLock) {
+            previous = snapshot;
+            // 조회는 overlay -> 스냅샷 순서이므로 스냅샷을 먼저 바꾸고 overlay를 줄인다.
+            snapshot = next;
+            if (scanStartedAt != null) {
+                overlay = overlay.retainAfter(scanStartedAt);
+                snapshotScanStartedAt = scanStartedAt;
+            }
+        }
+        logger.info("로그인 정보 스냅샷 교체: 유저 {}명, change_id {}, {}", next.getEntryCount(), next.getChangeId(), next.getPath());
+
+        if (previous != null && !previous.getPath().equals(next.getPath())) {
+            // 이미 매핑된 이전 파일은 지워도 GC될 때까지 읽을 수 있다. (조회 중인 스레드가 있어도 안전)
+            deleteQuietly(previous.getPath());
+        }
+    }
+
+    private void openLatest() {
+        try (Stream<Path> files = Files.list(directory)) {
+            Optional<Path> latest = files
+                    .filter(file -> file.getFileName().toString().startsWith(CredentialSnapshot.FILE_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(CredentialSnapshot.FILE_SUFFIX))
+                    .max(Comparator.comparing(file -> file.getFileName().toString()));
+            if (latest.isEmpty()) {
+                logger.error("사용할 수 있는 로그인 정보 스냅샷이 없습니다: {}", directory);
+                return;
+            }
+            CredentialSnapshot opened = open(latest.get());
+            swap(opened, null);
+            synchronized (pollLock) {
+                if (changeIds == null) {
+                    // 파일을 만들 때 건너뛴 change_id는 알 수 없으므로 최근 MAX_GAPS개는 다시 읽는다.
+                    changeIds = new IdGapTracker(Math.max(0, opened.getChangeId() - MAX_GAPS), MAX_TRANSACTION_TIME, MAX_GAPS);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 기동은 막지 않는다. 다음 refresh 주기에 DB에서 다시 만든다.
+            logger.error("로그인 정보 스냅샷을 열지 못했습니다: {}", directory, e);
+        }
+    }
+
+    private static CredentialSnapshot open(Path file) {
+        try {
+            return CredentialSnapshot.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<GrantedAuthority> toAuthorities(List<String> roles) {
+        List<GrantedAuthority> granted = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            granted.add(authorities.computeIfAbsent(role, SimpleGrantedAuthority::new));
+        }
+        return List.copyOf(granted);
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            snapshotFailures.increment();
+            logger.warn("로그인 정보 스냅샷 갱신에 실패했습니다. 기존 스냅샷을 계속 사용합니다.", e);
+        }
+    }
+
+    private void pollChangesSafely() {
+        try {
+            pollChanges();
+        } catch (RuntimeException e) {
+            changeLogFailures.increment();
+            logger.warn("로그인 정보 변경 로그를 읽지 못했습니다.", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("이전 스냅샷 파일을 지우지 못했습니다: {}", file, e);
+        }
+    }
+
+    private static ScheduledExecutorService newScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        if (changeLogScheduler != null) {
+            changeLogScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 같은 user_id의 연속된 행(권한 수만큼)을 하나로 모아서 consumer에 넘긴다.
+     */
+    private static class UserRowCollector implements RowCallbackHandler {
+
+        private final UserConsumer consumer;
+        private final List<String> roles = new ArrayList<>();
+        private long userId = -1;
+        private String username;
+        private String password;
+        private boolean activated;
+
+        UserRowCollector(UserConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowUserId = rs.getLong(1);
+            if (rowUserId != userId) {
+                finish();
+                userId = rowUserId;
+                username = rs.getString(2);
+                password = rs.getString(3);
+                activated = rs.getBoolean(4);
+            }
+            String authorityName = rs.getString(5);
+            if (authorityName != null) {
+                roles.add(authorityName);
+            }
+        }
+
+        void finish() {
+            if (userId < 0) {
+                return;
+            }
+            consumer.accept(username, password, activated, List.copyOf(roles));
+            roles.clear();
+            userId = -1;
+        }
+    }
+
+    @FunctionalInterface
+    private interface UserConsumer {
+        void accept(String username, String password, boolean activated, List<String> roles);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.jwttutorial.credential;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static com.example.jwttutorial.credential.CredentialSnapshot.*;
+
+/**
+ * 유저를 한 명씩 받아서 CredentialSnapshot 파일을 만든다.
+ *
+ * 레코드는 받는 즉시 임시 파일에 쓰고, 메모리에는 (해시, 레코드 위치) 8바이트씩만 남긴다.
+ * finish()에서 해시 인덱스를 만들어 [헤더 | 권한 목록 | 인덱스 | 레코드] 순서로 새 파일을 쓴 뒤
+ * fsync 후 최종 이름으로 원자적으로 이동한다. 그래서 다른 노드나 재기동한 노드가 반쯤 쓰인 파일을 읽는 일은 없다.
+ * 파일 형식은 CredentialSnapshot 참고
+ */
+class CredentialSnapshotWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INDEX_CHUNK_SLOTS = 8 * 1024;
+
+    private final Path directory;
+    private final long changeId;
+    private final long createdAtMillis;
+    private final Path dataFile;
+    private final CRC32 dataCrc = new CRC32();
+    private final DataOutputStream data;
+
+    private final Map<List<String>, Integer> roleSetIndexes = new LinkedHashMap<>();
+    private long[] entries = new long[1024];
+    private int entryCount;
+    private long dataLength;
+
+    CredentialSnapshotWriter(Path directory, long changeId) throws IOException {
+        this.directory = directory;
+        this.changeId = changeId;
+        this.createdAtMillis = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        this.dataFile = Files.createTempFile(directory, "credentials-", ".data.tmp");
+        this.data = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(dataFile), dataCrc), BUFFER_SIZE));
+    }
+
+    /**
+     * @param roles 권한 이름 목록 (정렬되어 있어야 같은 권한 조합이 하나로 합쳐진다.)
+     */
+    void add(String username, String password, boolean activated, List<String> roles) throws IOException {
+        byte[] passwordBytes = password == null ? new byte[0] : password.getBytes(StandardCharsets.UTF_8);
+        if (username.length() > MAX_FIELD_LENGTH || passwordBytes.length > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException(username + " -> username 또는 비밀번호 해시가 너무 깁니다.");
+        }
+        Integer roleSetIndex = roleSetIndexes.computeIfAbsent(List.copyOf(roles), key -> roleSetIndexes.size());
+        if (roleSetIndex > MAX_FIELD_LENGTH) {
+            throw new IllegalStateException("권한 조합이 너무 많습니다.");
+        }
+
+        long offset = dataLength;
+        data.writeShort(username.length());
+        data.writeChars(username);
+        data.writeByte(activated ? FLAG_ACTIVATED : 0);
+        data.writeShort(roleSetIndex);
+        data.writeShort(passwordBytes.length);
+        data.write(passwordBytes);
+        dataLength += 2 + 2L * username.length() + 1 + 2 + 2 + passwordBytes.length;
+
+        if (dataLength >= Integer.MAX_VALUE) {
+            throw new IllegalStateException("스냅샷 크기가 2GB를 넘었습니다.");
+        }
+        if (entryCount == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[entryCount++] = ((long) hash(username) << 32) | offset;
+    }
+
+    /**
+     * @return 완성된 스냅샷 파일 경로
+     */
+    Path finish() throws IOException {
+        data.close();
+
+        int slotCount = slotCount(entryCount);
+        long[] index = buildIndex(slotCount);
+        byte[] roleSets = encodeRoleSets();
+
+        int roleSetsOffset = HEADER_SIZE;
+        int indexOffset = align8(roleSetsOffset + roleSets.length);
+        long dataOffset = indexOffset + (long) slotCount * Long.BYTES;
+        if (dataOffset + dataLength > Integer.MAX_VALUE) {
+            throw new IllegalStateException("스냅샷 크기가 2GB를 넘었습니다.");
+        }
+
+        Path target = directory.resolve(String.format("%s%020d%s", FILE_PREFIX, createdAtMillis, FILE_SUFFIX));
+        Path temp = Files.createTempFile(directory, "credentials-", ".snap.tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            CRC32 metaCrc = new CRC32();
+
+            ByteBuffer roleSetsBuffer = ByteBuffer.wrap(roleSets);
+            metaCrc.update(roleSetsBuffer.duplicate());
+            writeFully(channel, roleSetsBuffer, roleSetsOffset);
+
+            ByteBuffer chunk = ByteBuffer.allocate(INDEX_CHUNK_SLOTS * Long.BYTES);
+            long position = indexOffset;
+            for (int from = 0; from < slotCount; from += INDEX_CHUNK_SLOTS) {
+                chunk.clear();
+                int to = Math.min(slotCount, from + INDEX_CHUNK_SLOTS);
+                for (int slot = from; slot < to; slot++) {
+                    chunk.putLong(index[slot]);
+                }
+                chunk.flip();
+                metaCrc.update(chunk.duplicate());
+                position += writeFully(channel, chunk, position);
+            }
+
+            try (FileChannel dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+                long transferred = 0;
+                while (transferred < dataLength) {
+                    transferred += channel.transferFrom(dataChannel, dataOffset + transferred, dataLength - transferred);
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(changeId)
+                    .putLong(createdAtMillis)
+                    .putInt(entryCount)
+                    .putInt(slotCount)
+                    .putInt(roleSetsOffset)
+                    .putInt(indexOffset)
+                    .putInt((int) dataOffset)
+                    .putInt((int) dataLength)
+                    .putLong(metaCrc.getValue())
+                    .putLong(dataCrc.getValue());
+            header.flip();
+            writeFully(channel, header, 0);
+
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    /**
+     * 선형 탐사(linear probing) 해시 테이블. 슬롯 값 = (해시 << 32) | (레코드 위치 + 1), 0은 빈 슬롯
+     */
+    private long[] buildIndex(int slotCount) {
+        long[] index = new long[slotCount];
+        int mask = slotCount - 1;
+        for (int i = 0; i < entryCount; i++) {
+            long entry = entries[i];
+            int slot = (int) (entry >>> 32) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = (entry & 0xFFFFFFFF00000000L) | ((entry & 0xFFFFFFFFL) + 1);
+        }
+        return index;
+    }
+
+    private byte[] encodeRoleSets() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(roleSetIndexes.size());
+            for (List<String> roles : roleSetIndexes.keySet()) {
+                out.writeShort(roles.size());
+                for (String role : roles) {
+                    out.writeShort(role.length());
+                    out.writeChars(role);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 사용률이 50%를 넘지 않는 2의 거듭제곱
+     */
+    private static int slotCount(int entryCount) {
+        int slots = Integer.highestOneBit(Math.max(1, entryCount * 2 - 1)) << 1;
+        return Math.max(2, slots);
+    }
+
+    private static int align8(int value) {
+        return (value + 7) & ~7;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+        Files.deleteIfExists(dataFile);
+    }
+}
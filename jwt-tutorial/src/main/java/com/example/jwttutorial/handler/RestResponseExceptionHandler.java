@@ -1,5 +1,6 @@
 package com.example.jwttutorial.handler;
 
+import com.example.jwttutorial.token.exception.IntrospectionLimitException;
 import com.example.jwttutorial.user.dto.ErrorDto;
 import com.example.jwttutorial.user.exception.DuplicateMemberException;
 import com.example.jwttutorial.user.exception.NotFoundMemberException;
@@ -13,6 +14,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
 
 @ControllerAdvice
 public class RestResponseExceptionHandler extends ResponseEntityExceptionHandler {
@@ -30,4 +32,11 @@ public class RestResponseExceptionHandler extends ResponseEntityExceptionHandler
     protected ErrorDto forbidden(RuntimeException ex, WebRequest request) {
         return new ErrorDto(FORBIDDEN.value(), ex.getMessage());
     }
-}
\ No newline at end of file
+
+    @ResponseStatus(PAYLOAD_TOO_LARGE)
+    @ExceptionHandler(value = {IntrospectionLimitException.class})
+    @ResponseBody
+    protected ErrorDto payloadTooLarge(RuntimeException ex, WebRequest request) {
+        return new ErrorDto(PAYLOAD_TOO_LARGE.value(), ex.getMessage());
+    }
+}
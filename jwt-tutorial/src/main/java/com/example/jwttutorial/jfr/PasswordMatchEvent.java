@@ -0,0 +1,25 @@
+package com.example.jwttutorial.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 저장된 해시와 입력 비밀번호 비교 (PasswordEncoder.matches)
+ */
+@Name("com.example.jwttutorial.PasswordMatch")
+@Label("Password Match")
+@Category({"JWT Tutorial", "Authentication"})
+@Description("저장된 해시와 입력 비밀번호 비교 (PasswordEncoder.matches)")
+@StackTrace(false)
+public class PasswordMatchEvent extends Event {
+
+    @Label("Encoding Id")
+    public String encodingId;
+
+    @Label("Matched")
+    public boolean matched;
+}
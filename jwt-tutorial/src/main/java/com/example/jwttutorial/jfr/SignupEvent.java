@@ -0,0 +1,30 @@
+package com.example.jwttutorial.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * UserService.signup 회원가입 처리
+ */
+@Name("com.example.jwttutorial.Signup")
+@Label("Signup")
+@Category({"JWT Tutorial", "Authentication"})
+@Description("UserService.signup 회원가입 처리")
+@StackTrace(false)
+public class SignupEvent extends Event {
+
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+
+    @Label("Outcome")
+    @Description("CREATED, DUPLICATE 또는 실패 예외 이름")
+    public String outcome;
+
+    @Label("Duplicate Check Skipped")
+    @Description("username 필터로 중복 조회를 생략했는지 여부")
+    public boolean duplicateCheckSkipped;
+}
@@ -0,0 +1,25 @@
+package com.example.jwttutorial.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * AuthController 로그인 요청의 인증부터 토큰 발급까지
+ */
+@Name("com.example.jwttutorial.TokenIssuance")
+@Label("Token Issuance")
+@Category({"JWT Tutorial", "Authentication"})
+@Description("AuthController 로그인 요청의 인증부터 토큰 발급까지")
+@StackTrace(false)
+public class TokenIssuanceEvent extends Event {
+
+    public static final String ISSUED = "ISSUED";
+
+    @Label("Outcome")
+    @Description("ISSUED 또는 인증 실패 예외 이름")
+    public String outcome;
+}
@@ -0,0 +1,29 @@
+package com.example.jwttutorial.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JwtFilter에서 요청 헤더의 토큰을 꺼내 검증하고 SecurityContext에 인증 정보를 저장하기까지
+ */
+@Name("com.example.jwttutorial.TokenResolution")
+@Label("Token Resolution")
+@Category({"JWT Tutorial", "Authentication"})
+@Description("JwtFilter에서 요청 헤더의 토큰을 꺼내 검증하고 SecurityContext에 인증 정보를 저장하기까지")
+@StackTrace(false)
+public class TokenResolutionEvent extends Event {
+
+    public static final String NO_TOKEN = "NO_TOKEN";
+    public static final String AUTHENTICATED = "AUTHENTICATED";
+    public static final String REJECTED = "REJECTED";
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Request URI")
+    public String uri;
+}
@@ -0,0 +1,27 @@
+package com.example.jwttutorial.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * TokenProvider의 JWT 서명/만료 검증
+ */
+@Name("com.example.jwttutorial.TokenVerification")
+@Label("Token Verification")
+@Category({"JWT Tutorial", "Authentication"})
+@Description("TokenProvider의 JWT 서명/만료 검증")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+
+    @Label("Operation")
+    @Description("validate, authentication, introspect")
+    public String operation;
+
+    @Label("Outcome")
+    @Description("ACTIVE 또는 실패 사유(TokenIntrospection.Status)")
+    public String outcome;
+}
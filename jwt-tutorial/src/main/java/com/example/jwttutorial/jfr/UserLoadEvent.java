@@ -0,0 +1,31 @@
+package com.example.jwttutorial.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * CustomUserDetailsService.loadUserByUsername의 유저/권한 조회
+ */
+@Name("com.example.jwttutorial.UserLoad")
+@Label("User Load")
+@Category({"JWT Tutorial", "Authentication"})
+@Description("CustomUserDetailsService.loadUserByUsername의 유저/권한 조회")
+@StackTrace(false)
+public class UserLoadEvent extends Event {
+
+    public static final String FOUND = "FOUND";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String FILTERED = "FILTERED";
+    public static final String DEACTIVATED = "DEACTIVATED";
+
+    @Label("Outcome")
+    @Description("FOUND, NOT_FOUND, FILTERED(username 필터로 DB 조회 생략), DEACTIVATED")
+    public String outcome;
+
+    @Label("Storage Mode")
+    public String storageMode;
+}
@@ -0,0 +1,8 @@
+/**
+ * 인증 단계별 JFR(Java Flight Recorder) 커스텀 이벤트
+ *
+ * 모든 이벤트는 begin() -> 작업 -> shouldCommit()일 때만 필드를 채워 commit() 하는 형태로 사용한다.
+ * 레코딩에서 이벤트가 꺼져 있으면 shouldCommit()이 false이고, JIT가 이벤트 객체 생성까지 제거하므로 비용이 거의 없다.
+ * 설정 파일 : src/main/resources/jfr/authentication.jfc
+ */
+package com.example.jwttutorial.jfr;
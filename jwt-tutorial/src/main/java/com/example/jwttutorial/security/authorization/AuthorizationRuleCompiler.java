@@ -0,0 +1,152 @@
+package com.example.jwttutorial.security.authorization;
+
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.BooleanLiteral;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * @PreAuthorize 식을 SpEL 파서로 파싱한 뒤, 권한 집합만으로 결과가 정해지는 식을 CompiledAuthorizationRule로 바꾼다.
+ *
+ * 지원하는 식 (SecurityExpressionRoot와 같은 의미)
+ * hasRole, hasAnyRole, hasAuthority, hasAnyAuthority (인자는 문자열 리터럴만), permitAll, denyAll, true, false
+ * 그리고 이들을 and, or, not(!)으로 조합한 식
+ *
+ * 그 외(isAuthenticated(), principal, #파라미터, 빈 참조 등)가 하나라도 있으면 null을 리턴하고, 해당 메서드는 SpEL로 평가한다.
+ */
+class AuthorizationRuleCompiler {
+
+    // 마스크 크기가 2^n이므로, 한 식에서 서로 다른 권한 이름은 이 개수까지만 컴파일한다.
+    static final int MAX_AUTHORITIES_PER_RULE = 10;
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final String rolePrefix;
+
+    AuthorizationRuleCompiler(String rolePrefix) {
+        this.rolePrefix = rolePrefix;
+    }
+
+    CompiledAuthorizationRule compile(String expression) {
+        SpelNode ast;
+        try {
+            ast = ((SpelExpression) parser.parseExpression(expression)).getAST();
+        } catch (ParseException e) {
+            // 잘못된 식의 예외 처리는 SpEL 경로에 맡긴다.
+            return null;
+        }
+
+        Map<String, Integer> bitByAuthority = new LinkedHashMap<>();
+        IntPredicate predicate = compile(ast, bitByAuthority);
+        if (predicate == null || bitByAuthority.size() > MAX_AUTHORITIES_PER_RULE) {
+            return null;
+        }
+        return new CompiledAuthorizationRule(expression, Collections.unmodifiableMap(bitByAuthority), predicate);
+    }
+
+    private IntPredicate compile(SpelNode node, Map<String, Integer> bitByAuthority) {
+        if (node instanceof OpAnd) {
+            IntPredicate left = compile(node.getChild(0), bitByAuthority);
+            IntPredicate right = compile(node.getChild(1), bitByAuthority);
+            return left == null || right == null ? null : left.and(right);
+        }
+        if (node instanceof OpOr) {
+            IntPredicate left = compile(node.getChild(0), bitByAuthority);
+            IntPredicate right = compile(node.getChild(1), bitByAuthority);
+            return left == null || right == null ? null : left.or(right);
+        }
+        if (node instanceof OperatorNot) {
+            IntPredicate operand = compile(node.getChild(0), bitByAuthority);
+            return operand == null ? null : operand.negate();
+        }
+        if (node instanceof BooleanLiteral) {
+            boolean value = (Boolean) ((BooleanLiteral) node).getLiteralValue().getValue();
+            return mask -> value;
+        }
+        if (node instanceof PropertyOrFieldReference && node.getChildCount() == 0) {
+            String name = ((PropertyOrFieldReference) node).getName();
+            if ("permitAll".equals(name)) {
+                return mask -> true;
+            }
+            if ("denyAll".equals(name)) {
+                return mask -> false;
+            }
+            return null;
+        }
+        if (node instanceof MethodReference && !((MethodReference) node).isNullSafe()) {
+            return compileMethod((MethodReference) node, bitByAuthority);
+        }
+        return null;
+    }
+
+    private IntPredicate compileMethod(MethodReference method, Map<String, Integer> bitByAuthority) {
+        List<String> arguments = new ArrayList<>(method.getChildCount());
+        for (int i = 0; i < method.getChildCount(); i++) {
+            SpelNode argument = method.getChild(i);
+            if (!(argument instanceof StringLiteral)) {
+                return null;
+            }
+            arguments.add((String) ((StringLiteral) argument).getLiteralValue().getValue());
+        }
+
+        boolean role;
+        switch (method.getName()) {
+            case "hasRole", "hasAuthority" -> {
+                if (arguments.size() != 1) {
+                    return null;
+                }
+                role = method.getName().equals("hasRole");
+            }
+            case "hasAnyRole" -> role = true;
+            case "hasAnyAuthority" -> role = false;
+            default -> {
+                return null;
+            }
+        }
+
+        int required = 0;
+        for (String argument : arguments) {
+            String authority = role ? withRolePrefix(argument) : argument;
+            if (authority == null) {
+                // null 권한은 어떤 GrantedAuthority와도 일치하지 않는다.
+                continue;
+            }
+            Integer bit = bitByAuthority.get(authority);
+            if (bit == null) {
+                if (bitByAuthority.size() >= Integer.SIZE - 1) {
+                    return null;
+                }
+                bit = 1 << bitByAuthority.size();
+                bitByAuthority.put(authority, bit);
+            }
+            required |= bit;
+        }
+
+        int requiredMask = required;
+        return mask -> (mask & requiredMask) != 0;
+    }
+
+    /**
+     * SecurityExpressionRoot.getRoleWithDefaultPrefix와 같은 규칙
+     */
+    private String withRolePrefix(String role) {
+        if (role == null || rolePrefix == null || rolePrefix.isEmpty() || role.startsWith(rolePrefix)) {
+            return role;
+        }
+        return rolePrefix + role;
+    }
+}
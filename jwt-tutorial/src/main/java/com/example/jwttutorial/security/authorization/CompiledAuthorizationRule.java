@@ -0,0 +1,61 @@
+package com.example.jwttutorial.security.authorization;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * @PreAuthorize 식 하나를 미리 컴파일한 결정 객체
+ *
+ * 식에 등장하는 권한 이름마다 비트를 하나씩 부여하고, 요청 유저의 권한 목록을 그 비트들로 이루어진 마스크로 바꾼다.
+ * 식에 등장하지 않는 권한은 결과에 영향을 주지 않으므로 무시한다.
+ * 같은 마스크(= 식 입장에서 같은 권한 집합)에 대한 결정은 decisions 배열에 한 번만 계산해서 재사용한다.
+ */
+class CompiledAuthorizationRule {
+
+    static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final String expression;
+    private final Map<String, Integer> bitByAuthority;
+    private final IntPredicate predicate;
+
+    // 같은 마스크에 대해서는 항상 같은 값이 계산되므로 동기화 없이 채워도 안전하다.
+    private final AuthorizationDecision[] decisions;
+
+    CompiledAuthorizationRule(String expression, Map<String, Integer> bitByAuthority, IntPredicate predicate) {
+        this.expression = expression;
+        this.bitByAuthority = bitByAuthority;
+        this.predicate = predicate;
+        this.decisions = new AuthorizationDecision[1 << bitByAuthority.size()];
+    }
+
+    AuthorizationDecision decide(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        if (!bitByAuthority.isEmpty()) {
+            for (GrantedAuthority authority : authorities) {
+                String name = authority.getAuthority();
+                if (name != null) {
+                    Integer bit = bitByAuthority.get(name);
+                    if (bit != null) {
+                        mask |= bit;
+                    }
+                }
+            }
+        }
+
+        AuthorizationDecision decision = decisions[mask];
+        if (decision == null) {
+            decision = predicate.test(mask) ? GRANTED : DENIED;
+            decisions[mask] = decision;
+        }
+        return decision;
+    }
+
+    String getExpression() {
+        return expression;
+    }
+}
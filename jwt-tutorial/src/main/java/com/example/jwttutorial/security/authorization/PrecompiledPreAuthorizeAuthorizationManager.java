@@ -0,0 +1,151 @@
+package com.example.jwttutorial.security.authorization;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @PreAuthorize를 매 호출마다 SpEL로 평가하지 않고, 메서드별로 미리 컴파일한 결정 객체로 판단하는 AuthorizationManager
+ *
+ * 1. 기동 시(모든 싱글톤 빈 생성 후) @PreAuthorize가 붙은 빈 메서드의 식을 AuthorizationRuleCompiler로 컴파일해 둔다.
+ * 2. 호출 시에는 메서드에 해당하는 CompiledAuthorizationRule이 권한 목록만으로 결정을 내린다.
+ * 3. 컴파일할 수 없는 식(isAuthenticated(), #파라미터 등)은 기존 PreAuthorizeAuthorizationManager(SpEL)로 평가한다.
+ *
+ * 애너테이션은 메서드, 없으면 클래스 순서로 찾는다. (PreAuthorizeAuthorizationManager와 같은 순서)
+ */
+public class PrecompiledPreAuthorizeAuthorizationManager
+        implements AuthorizationManager<MethodInvocation>, SmartInitializingSingleton, ApplicationContextAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrecompiledPreAuthorizeAuthorizationManager.class);
+
+    /**
+     * @PreAuthorize가 없는 메서드, 또는 컴파일할 수 없는 식을 표시하는 값
+     */
+    private static final Rule NO_ANNOTATION = new Rule(null);
+    private static final Rule NOT_COMPILED = new Rule(null);
+
+    private final AuthorizationRuleCompiler compiler;
+    private final PreAuthorizeAuthorizationManager fallback = new PreAuthorizeAuthorizationManager();
+    private final Map<MethodClassKey, Rule> rules = new ConcurrentHashMap<>();
+    private ApplicationContext applicationContext;
+
+    public PrecompiledPreAuthorizeAuthorizationManager(MethodSecurityExpressionHandler expressionHandler, String rolePrefix) {
+        this.compiler = new AuthorizationRuleCompiler(rolePrefix);
+        this.fallback.setExpressionHandler(expressionHandler);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : null;
+        Rule rule = rules.computeIfAbsent(new MethodClassKey(invocation.getMethod(), targetClass),
+                key -> resolve(invocation.getMethod(), targetClass));
+
+        if (rule == NO_ANNOTATION) {
+            return null;
+        }
+        if (rule == NOT_COMPILED) {
+            return fallback.check(authentication, invocation);
+        }
+        return rule.compiled.decide(authentication.get().getAuthorities());
+    }
+
+    /**
+     * 테스트, 벤치마크용 : 해당 메서드가 SpEL 없이 판단되는지 여부
+     */
+    boolean isPrecompiled(Method method, Class<?> targetClass) {
+        return rules.computeIfAbsent(new MethodClassKey(method, targetClass), key -> resolve(method, targetClass)).compiled != null;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 모든 싱글톤 빈이 만들어진 뒤, 빈 클래스의 @PreAuthorize 메서드를 미리 컴파일한다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!(applicationContext instanceof ConfigurableApplicationContext)) {
+            return;
+        }
+        ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) applicationContext).getBeanFactory();
+
+        int compiled = 0;
+        int notCompiled = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                continue;
+            }
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            Class<?> targetClass = ClassUtils.getUserClass(beanType);
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(targetClass, ReflectionUtils.USER_DECLARED_METHODS)) {
+                Rule rule = rules.computeIfAbsent(new MethodClassKey(method, targetClass), key -> resolve(method, targetClass));
+                if (rule == NO_ANNOTATION) {
+                    continue;
+                }
+                if (rule.compiled != null) {
+                    compiled++;
+                } else {
+                    notCompiled++;
+                }
+            }
+        }
+        logger.info("@PreAuthorize 사전 컴파일 완료: {}개 메서드, SpEL 평가 {}개", compiled, notCompiled);
+    }
+
+    private Rule resolve(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (preAuthorize == null) {
+            Class<?> type = targetClass != null ? targetClass : specificMethod.getDeclaringClass();
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(type, PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return NO_ANNOTATION;
+        }
+
+        CompiledAuthorizationRule compiled = compiler.compile(preAuthorize.value());
+        if (compiled == null) {
+            logger.debug("@PreAuthorize(\"{}\")는 SpEL로 평가합니다: {}", preAuthorize.value(), specificMethod);
+            return NOT_COMPILED;
+        }
+        return new Rule(compiled);
+    }
+
+    private static final class Rule {
+
+        private final CompiledAuthorizationRule compiled;
+
+        private Rule(CompiledAuthorizationRule compiled) {
+            this.compiled = compiled;
+        }
+    }
+}
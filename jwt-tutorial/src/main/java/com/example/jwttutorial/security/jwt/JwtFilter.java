@@ -1,5 +1,8 @@
 package com.example.jwttutorial.security.jwt;
 
+import com.example.jwttutorial.audit.AuthAuditLog;
+import com.example.jwttutorial.audit.AuthAuditType;
+import com.example.jwttutorial.jfr.TokenResolutionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -23,9 +26,11 @@ public class JwtFilter extends GenericFilterBean {
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
     private TokenProvider tokenProvider;
+    private AuthAuditLog authAuditLog;
 
-    public JwtFilter(TokenProvider tokenProvider) {
+    public JwtFilter(TokenProvider tokenProvider, AuthAuditLog authAuditLog) {
         this.tokenProvider = tokenProvider;
+        this.authAuditLog = authAuditLog;
     }
 
     /**
@@ -37,18 +42,36 @@ public class JwtFilter extends GenericFilterBean {
                          ServletResponse servletResponse,
                          FilterChain filterChain) throws IOException, ServletException {
 
+        TokenResolutionEvent event = new TokenResolutionEvent();
+        event.begin();
+
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
         String requestURI = httpServletRequest.getRequestURI();
+        String outcome;
 
         if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
             Authentication authentication = tokenProvider.getAuthentication(jwt);
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            outcome = TokenResolutionEvent.AUTHENTICATED;
             logger.debug("Security Context에 '{}' 인증 정보를 저장했습니다, uri: {}", authentication.getName(), requestURI);
         } else {
+            outcome = TokenResolutionEvent.NO_TOKEN;
+            // 토큰을 보냈는데 검증에 실패한 경우만 감사 로그로 남긴다.
+            if (StringUtils.hasText(jwt)) {
+                outcome = TokenResolutionEvent.REJECTED;
+                authAuditLog.record(AuthAuditType.TOKEN_REJECTED, null, httpServletRequest.getRemoteAddr(), requestURI);
+            }
             logger.debug("유효한 JWT 토큰이 없습니다, uri: {}", requestURI);
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.uri = requestURI;
+            event.commit();
+        }
+
 
         // doFilter 메서드는 현재 필터의 작업을 완료하고,
         // 필터 체인의 다음 단계로 요청을 전달하는 역할을 수행한다.
@@ -1,5 +1,6 @@
 package com.example.jwttutorial.security.jwt;
 
+import com.example.jwttutorial.audit.AuthAuditLog;
 import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
@@ -11,9 +12,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
     private TokenProvider tokenProvider;
+    private AuthAuditLog authAuditLog;
 
-    public JwtSecurityConfig(TokenProvider tokenProvider) {
+    public JwtSecurityConfig(TokenProvider tokenProvider, AuthAuditLog authAuditLog) {
         this.tokenProvider = tokenProvider;
+        this.authAuditLog = authAuditLog;
     }
 
     /**
@@ -24,7 +27,7 @@ public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurity
     @Override
     public void configure(HttpSecurity http) {
         http.addFilterBefore(
-                new JwtFilter(tokenProvider),
+                new JwtFilter(tokenProvider, authAuditLog),
                 UsernamePasswordAuthenticationFilter.class
         );
     }
@@ -0,0 +1,33 @@
+package com.example.jwttutorial.security.jwt;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * TokenProvider.introspect()의 검증 결과
+ * ACTIVE일 때만 subject, authorities, expiration 값이 채워진다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TokenIntrospection {
+
+    public enum Status {
+        ACTIVE, EXPIRED, INVALID_SIGNATURE, MALFORMED, UNSUPPORTED, INVALID
+    }
+
+    private final Status status;
+    private final String subject;
+    private final String authorities;
+    private final Date expiration;
+
+    public static TokenIntrospection active(String subject, String authorities, Date expiration) {
+        return new TokenIntrospection(Status.ACTIVE, subject, authorities, expiration);
+    }
+
+    public static TokenIntrospection inactive(Status status) {
+        return new TokenIntrospection(status, null, null, null);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jwttutorial.security.jwt;
 
+import com.example.jwttutorial.jfr.TokenVerificationEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -31,6 +32,7 @@ public class TokenProvider implements InitializingBean {
     private final String secret;
     private final long tokenValidityInMilliseconds;
     private Key key;
+    private JwtParser jwtParser;
 
     public TokenProvider(
             @Value("${jwt.secret}") String secret,
@@ -46,6 +48,8 @@ public class TokenProvider implements InitializingBean {
     public void afterPropertiesSet() {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        // 파서는 불변이고 thread-safe하므로 요청마다 만들지 않고 재사용한다.
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     /**
@@ -71,12 +75,12 @@ public class TokenProvider implements InitializingBean {
      * 역으로 토큰을 이용하여 Authentication 객체를 리턴하는 메서드
      */
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts
-                .parserBuilder()
-                .setSigningKey(key)
-                .build()
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        Claims claims = jwtParser
                 .parseClaimsJws(token)
                 .getBody();
+        commit(event, "authentication", TokenIntrospection.Status.ACTIVE);
 
         Collection<? extends GrantedAuthority> authorities =
                 Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
@@ -93,19 +97,67 @@ public class TokenProvider implements InitializingBean {
      * 토큰을 파싱해보고 발생하는 예외를 캐치한다.
      */
     public boolean validateToken(String token) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
+            commit(event, "validate", TokenIntrospection.Status.ACTIVE);
             return true;
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
+            commit(event, "validate", e instanceof MalformedJwtException
+                    ? TokenIntrospection.Status.MALFORMED : TokenIntrospection.Status.INVALID_SIGNATURE);
             logger.info("잘못된 JWT 서명입니다.");
         } catch (ExpiredJwtException e) {
+            commit(event, "validate", TokenIntrospection.Status.EXPIRED);
             logger.info("만료된 JWT 토큰입니다.");
         } catch (UnsupportedJwtException e) {
+            commit(event, "validate", TokenIntrospection.Status.UNSUPPORTED);
             logger.info("지원되지 않는 JWT 토큰입니다.");
         } catch (IllegalArgumentException e) {
+            commit(event, "validate", TokenIntrospection.Status.INVALID);
             logger.info("JWT 토큰이 잘못되었습니다.");
         }
         return false;
     }
-}
 
+    /**
+     * 다른 서비스의 토큰 확인(introspection)용 검증 메서드
+     * validateToken과 같은 파서로 검증하되, 실패 사유와 클레임을 로그 대신 결과로 돌려준다.
+     */
+    public TokenIntrospection introspect(String token) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        TokenIntrospection result = verify(token);
+        commit(event, "introspect", result.getStatus());
+        return result;
+    }
+
+    private TokenIntrospection verify(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            return TokenIntrospection.active(
+                    claims.getSubject(),
+                    claims.get(AUTHORITIES_KEY, String.class),
+                    claims.getExpiration());
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            return TokenIntrospection.inactive(TokenIntrospection.Status.INVALID_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            return TokenIntrospection.inactive(TokenIntrospection.Status.MALFORMED);
+        } catch (ExpiredJwtException e) {
+            return TokenIntrospection.inactive(TokenIntrospection.Status.EXPIRED);
+        } catch (UnsupportedJwtException e) {
+            return TokenIntrospection.inactive(TokenIntrospection.Status.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenIntrospection.inactive(TokenIntrospection.Status.INVALID);
+        }
+    }
+
+    private static void commit(TokenVerificationEvent event, String operation, TokenIntrospection.Status status) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.outcome = status.name();
+            event.commit();
+        }
+    }
+}
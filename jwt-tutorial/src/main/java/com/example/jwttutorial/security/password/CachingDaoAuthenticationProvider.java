@@ -0,0 +1,41 @@
+package com.example.jwttutorial.security.password;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 비밀번호 비교 전에 LoginVerificationCache를 확인하는 DaoAuthenticationProvider
+ *
+ * 유저 조회(loadUserByUsername)와 계정 상태 확인은 기존과 같이 매번 실행하고, 해시 비교만 생략한다.
+ * 캐시가 꺼져 있으면 DaoAuthenticationProvider와 똑같이 동작한다.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final LoginVerificationCache loginVerificationCache;
+
+    public CachingDaoAuthenticationProvider(PasswordEncoder passwordEncoder, LoginVerificationCache loginVerificationCache) {
+        super(passwordEncoder);
+        this.loginVerificationCache = loginVerificationCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        if (!loginVerificationCache.isEnabled() || authentication.getCredentials() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+
+        String presentedPassword = authentication.getCredentials().toString();
+        if (loginVerificationCache.isVerified(userDetails.getUsername(), presentedPassword, userDetails.getPassword())) {
+            return;
+        }
+
+        // 틀린 비밀번호는 BadCredentialsException으로 끝나고 기존 기록은 그대로 둔다. (틀린 비밀번호로 다른 유저의 기록을 지울 수 없도록)
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        loginVerificationCache.verified(userDetails.getUsername(), presentedPassword, userDetails.getPassword());
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.jwttutorial.security.password;
+
+import com.example.jwttutorial.jfr.PasswordMatchEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로그인 지연시간 목표(target-time)에 맞춰 해시 비용을 보정한 PasswordEncoder
+ *
+ * 기동 시점에 현재 하드웨어에서 bcrypt strength와 argon2 iterations를 측정해서 정하고,
+ * 저장된 해시는 {bcrypt}, {argon2}, {pbkdf2} 접두어로 구분하는 DelegatingPasswordEncoder로 검증한다.
+ * 접두어가 없는 기존 해시(data.sql의 $2a$08 등)는 bcrypt로 검증한다.
+ *
+ * upgradeEncoding은 저장된 해시의 파라미터로 예상 검증 시간을 계산해서
+ * 목표 시간의 [1/tolerance, tolerance] 범위를 벗어나면 true를 리턴한다.
+ * 그러면 DaoAuthenticationProvider가 로그인 성공 직후 UserDetailsPasswordService를 통해 해시를 다시 저장한다.
+ * (비용이 너무 낮으면 올리고, 너무 높으면 내린다.)
+ * 이미 현재 보정한 파라미터(bcrypt strength, argon2 m/t/p)로 만든 해시는 범위를 벗어나도 다시 해시하지 않는다.
+ * 보정 결과 자체가 범위 밖일 수 있고(bcrypt는 2배 단위, 최솟값/최댓값 제한), 그때 매 로그인마다 다시 저장하지 않기 위해서다.
+ *
+ * pbkdf2 해시에는 반복 횟수가 기록되지 않으므로 보정하지 않고 Spring Security 기본값으로 고정한다.
+ */
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedPasswordEncoder.class);
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int BCRYPT_MIN_STRENGTH = 4;
+    private static final int BCRYPT_MAX_STRENGTH = 16;
+    private static final int ARGON2_MAX_ITERATIONS = 64;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+    private static final Pattern ARGON2_PATTERN = Pattern.compile("^\\$(argon2id|argon2i|argon2d)\\$v=\\d+\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    private final DelegatingPasswordEncoder delegate;
+    private final String idForEncode;
+    private final long targetNanos;
+    private final double tolerance;
+
+    private final int bcryptStrength;
+    private final long bcryptNanos;
+    private final int argon2MemoryKb;
+    private final int argon2Parallelism;
+    private final int argon2Iterations;
+    private final long argon2Nanos;
+
+    private CalibratedPasswordEncoder(String idForEncode, long targetNanos, double tolerance,
+                                      int bcryptStrength, long bcryptNanos,
+                                      int argon2MemoryKb, int argon2Parallelism, int argon2Iterations, long argon2Nanos) {
+        this.idForEncode = idForEncode;
+        this.targetNanos = targetNanos;
+        this.tolerance = tolerance;
+        this.bcryptStrength = bcryptStrength;
+        this.bcryptNanos = bcryptNanos;
+        this.argon2MemoryKb = argon2MemoryKb;
+        this.argon2Parallelism = argon2Parallelism;
+        this.argon2Iterations = argon2Iterations;
+        this.argon2Nanos = argon2Nanos;
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        this.delegate = new DelegatingPasswordEncoder(idForEncode, Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                        argon2Parallelism, argon2MemoryKb, argon2Iterations),
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        ));
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+    }
+
+    /**
+     * 현재 하드웨어에서 해시 한 번에 걸리는 시간을 측정해서 목표 시간에 가장 가까운 비용을 정한다.
+     */
+    public static CalibratedPasswordEncoder calibrate(String idForEncode, Duration target, double tolerance,
+                                                      int argon2MemoryKb, int argon2Parallelism) {
+        if (!BCRYPT.equals(idForEncode) && !ARGON2.equals(idForEncode) && !PBKDF2.equals(idForEncode)) {
+            throw new IllegalArgumentException("지원하지 않는 password encoding id 입니다: " + idForEncode);
+        }
+        // [target / tolerance, target * tolerance] 범위가 bcrypt 한 단계(2배)를 담을 수 있어야 한다.
+        if (tolerance < Math.sqrt(2)) {
+            throw new IllegalArgumentException("tolerance는 √2(약 1.415) 이상이어야 합니다: " + tolerance);
+        }
+        long targetNanos = target.toNanos();
+
+        // bcrypt는 strength가 1 오를 때마다 시간이 2배가 되므로 목표를 넘는 지점과 그 직전 중 가까운 쪽을 고른다.
+        int strength = BCRYPT_MIN_STRENGTH;
+        long previousNanos = 0;
+        long elapsedNanos = measure(new BCryptPasswordEncoder(strength));
+        while (elapsedNanos < targetNanos && strength < BCRYPT_MAX_STRENGTH) {
+            previousNanos = elapsedNanos;
+            elapsedNanos = measure(new BCryptPasswordEncoder(++strength));
+        }
+        if (previousNanos > 0 && (double) targetNanos / previousNanos < (double) elapsedNanos / targetNanos) {
+            strength--;
+            elapsedNanos = previousNanos;
+        }
+
+        // argon2는 메모리를 고정하고 iterations에 비례해서 시간이 늘어난다.
+        long singleIterationNanos = measure(new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                argon2Parallelism, argon2MemoryKb, 1));
+        int iterations = (int) Math.max(1, Math.min(ARGON2_MAX_ITERATIONS, Math.round((double) targetNanos / singleIterationNanos)));
+        long argon2Nanos = iterations == 1 ? singleIterationNanos : measure(new Argon2PasswordEncoder(ARGON2_SALT_LENGTH,
+                ARGON2_HASH_LENGTH, argon2Parallelism, argon2MemoryKb, iterations));
+
+        logger.info("password encoder 보정 완료 - target: {}ms, bcrypt strength: {} ({}ms), argon2 m={} t={} p={} ({}ms), encode: {}",
+                target.toMillis(), strength, elapsedNanos / 1_000_000,
+                argon2MemoryKb, iterations, argon2Parallelism, argon2Nanos / 1_000_000, idForEncode);
+
+        return new CalibratedPasswordEncoder(idForEncode, targetNanos, tolerance,
+                strength, elapsedNanos, argon2MemoryKb, argon2Parallelism, iterations, argon2Nanos);
+    }
+
+    /**
+     * 첫 실행은 JIT 워밍업으로 보고 버린 뒤 가장 빠른 값을 사용한다.
+     */
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordMatchEvent event = new PasswordMatchEvent();
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.end();
+        if (event.shouldCommit()) {
+            event.encodingId = encodingId(encodedPassword);
+            event.matched = matched;
+            event.commit();
+        }
+        return matched;
+    }
+
+    private static String encodingId(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+            return BCRYPT;
+        }
+        int end = encodedPassword.indexOf('}');
+        return end < 0 ? null : encodedPassword.substring(1, end);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String prefixEncodedPassword) {
+        if (prefixEncodedPassword == null || prefixEncodedPassword.isEmpty()) {
+            return false;
+        }
+
+        // 접두어가 없는 해시는 현재 형식({id}...)으로 다시 저장한다.
+        if (!prefixEncodedPassword.startsWith("{")) {
+            return true;
+        }
+        int end = prefixEncodedPassword.indexOf('}');
+        if (end < 0) {
+            return true;
+        }
+        String id = prefixEncodedPassword.substring(1, end);
+        String encoded = prefixEncodedPassword.substring(end + 1);
+
+        if (!idForEncode.equals(id)) {
+            return true;
+        }
+
+        switch (id) {
+            case BCRYPT:
+                return bcryptOutsideTarget(encoded);
+            case ARGON2:
+                return argon2OutsideTarget(encoded);
+            default:
+                return false;
+        }
+    }
+
+    private boolean bcryptOutsideTarget(String encoded) {
+        Matcher matcher = BCRYPT_PATTERN.matcher(encoded);
+        if (!matcher.find()) {
+            return true;
+        }
+        int strength = Integer.parseInt(matcher.group(1));
+        if (strength == bcryptStrength) {
+            return false;
+        }
+        double estimatedNanos = bcryptNanos * Math.pow(2, strength - bcryptStrength);
+        return outsideTarget(estimatedNanos);
+    }
+
+    private boolean argon2OutsideTarget(String encoded) {
+        Matcher matcher = ARGON2_PATTERN.matcher(encoded);
+        if (!matcher.find()) {
+            return true;
+        }
+        if (!"argon2id".equals(matcher.group(1)) || Integer.parseInt(matcher.group(4)) != argon2Parallelism) {
+            return true;
+        }
+        long memoryKb = Long.parseLong(matcher.group(2));
+        long iterations = Long.parseLong(matcher.group(3));
+        if (memoryKb == argon2MemoryKb && iterations == argon2Iterations) {
+            return false;
+        }
+        double estimatedNanos = argon2Nanos * ((double) (memoryKb * iterations) / ((long) argon2MemoryKb * argon2Iterations));
+        return outsideTarget(estimatedNanos);
+    }
+
+    private boolean outsideTarget(double estimatedNanos) {
+        return estimatedNanos < targetNanos / tolerance || estimatedNanos > targetNanos * tolerance;
+    }
+}
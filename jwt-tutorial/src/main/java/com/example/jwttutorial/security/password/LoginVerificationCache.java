@@ -0,0 +1,183 @@
+package com.example.jwttutorial.security.password;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 최근에 성공한 로그인 검증 결과를 짧은 시간(ttl) 동안 기억해서, 같은 자격 증명의 반복 로그인에서 해시 비교(bcrypt 등)를 생략한다.
+ * (login-cache.enabled: true 일 때만 동작한다.)
+ *
+ * 1. 비밀번호는 저장하지 않는다. username, 입력한 비밀번호, 저장된 해시를 HMAC-SHA256으로 묶은 값만 username별로 하나 저장한다.
+ * 2. HMAC 키는 기동할 때마다 새로 만드는 난수라서 메모리가 유출되어도 저장된 값으로 비밀번호를 추측할 수 없다.
+ * 3. 저장된 해시가 키에 포함되므로 비밀번호가 바뀌면(다른 노드에서 바뀌어도) 기존 값과 일치하지 않는다.
+ *    이 노드에서 바뀐 경우는 invalidate()로 바로 지운다.
+ * 4. 유저 조회와 계정 상태 확인(활성화 여부 등)은 캐시와 상관없이 매 로그인마다 실행되므로 상태 변경도 바로 반영된다.
+ * 5. max-entries를 넘으면 만료된 값부터 지우고, 그래도 가득 차 있으면 새 값을 저장하지 않는다.
+ */
+@Component
+public class LoginVerificationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int KEY_LENGTH = 32;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ThreadLocal<Mac> macs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginVerificationCache(@Value("${login-cache.enabled:false}") boolean enabled,
+                                  @Value("${login-cache.ttl:60s}") Duration ttl,
+                                  @Value("${login-cache.max-entries:10000}") int maxEntries,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+
+        byte[] key = new byte[KEY_LENGTH];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(HMAC_ALGORITHM + "를 사용할 수 없습니다.", e);
+            }
+        });
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("login.cache.lookups", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("login.cache.lookups", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        FunctionCounter.builder("login.cache.rejected", rejected, LongAdder::sum).register(registry);
+        Gauge.builder("login.cache.entries", entries, Map::size).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return ttl 안에 같은 username, 비밀번호, 저장된 해시로 검증에 성공한 적이 있으면 true
+     */
+    public boolean isVerified(String username, CharSequence rawPassword, String encodedPassword) {
+        if (!enabled) {
+            return false;
+        }
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(username, entry);
+            misses.increment();
+            return false;
+        }
+        if (!MessageDigest.isEqual(entry.digest, digest(username, rawPassword, encodedPassword))) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * 해시 비교로 검증에 성공한 자격 증명을 기록한다.
+     */
+    public void verified(String username, CharSequence rawPassword, String encodedPassword) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries && !entries.containsKey(username)) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            if (entries.size() >= maxEntries) {
+                rejected.increment();
+                return;
+            }
+        }
+        entries.put(username, new Entry(digest(username, rawPassword, encodedPassword), now + ttlNanos));
+    }
+
+    /**
+     * 비밀번호나 계정 상태가 바뀐 유저의 기록을 지운다.
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            entries.remove(username);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * 각 값 앞에 길이를 붙여서 경계가 모호한 조합(username "ab" + 비밀번호 "c" 와 "a" + "bc")이 같은 값이 되지 않게 한다.
+     */
+    private byte[] digest(String username, CharSequence rawPassword, String encodedPassword) {
+        Mac mac = macs.get();
+        update(mac, username.getBytes(StandardCharsets.UTF_8));
+
+        ByteBuffer password = StandardCharsets.UTF_8.encode(CharBuffer.wrap(rawPassword));
+        byte[] passwordBytes = new byte[password.remaining()];
+        password.get(passwordBytes);
+        update(mac, passwordBytes);
+        Arrays.fill(passwordBytes, (byte) 0);
+        if (password.hasArray()) {
+            Arrays.fill(password.array(), (byte) 0);
+        }
+
+        update(mac, encodedPassword.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal();
+    }
+
+    private static void update(Mac mac, byte[] value) {
+        mac.update((byte) (value.length >>> 24));
+        mac.update((byte) (value.length >>> 16));
+        mac.update((byte) (value.length >>> 8));
+        mac.update((byte) value.length);
+        mac.update(value);
+    }
+
+    private static final class Entry {
+
+        private final byte[] digest;
+        private final long expiresAtNanos;
+
+        private Entry(byte[] digest, long expiresAtNanos) {
+            this.digest = digest;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.jwttutorial.token.application;
+
+import com.example.jwttutorial.security.jwt.TokenIntrospection;
+import com.example.jwttutorial.security.jwt.TokenProvider;
+import com.example.jwttutorial.token.dto.TokenIntrospectionDto;
+import com.example.jwttutorial.token.exception.IntrospectionLimitException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 토큰을 한 번에 검증하는 introspection 서비스
+ *
+ * 1. 한 요청의 토큰 수(max-tokens)와 토큰 길이(max-token-length)를 제한한다.
+ *    요청 body는 readTokens()로 읽으면서 제한을 확인하므로, 제한을 넘는 배열이나 문자열을 끝까지 메모리에 올리지 않는다.
+ * 2. 같은 토큰이 여러 번 들어오면 한 번만 검증한다.
+ * 3. 토큰 수가 parallel-threshold 이상이면 전용 스레드 풀에서 나눠서 검증한다.
+ *    풀을 동시에 사용하는 요청 수는 max-concurrent-batches로 제한하고, 자리가 없으면 요청 스레드에서 직접 검증한다.
+ */
+@Service
+public class TokenIntrospectionService implements DisposableBean {
+
+    private final TokenProvider tokenProvider;
+    private final int maxTokens;
+    private final int maxTokenLength;
+    private final JsonFactory jsonFactory;
+    private final int parallelThreshold;
+    private final int parallelism;
+    private final Semaphore parallelBatches;
+    private final ExecutorService executor;
+
+    public TokenIntrospectionService(TokenProvider tokenProvider,
+                                     @Value("${introspect.max-tokens:1000}") int maxTokens,
+                                     @Value("${introspect.max-token-length:4096}") int maxTokenLength,
+                                     @Value("${introspect.parallel-threshold:64}") int parallelThreshold,
+                                     @Value("${introspect.parallelism:0}") int parallelism,
+                                     @Value("${introspect.max-concurrent-batches:2}") int maxConcurrentBatches) {
+        this.tokenProvider = tokenProvider;
+        this.maxTokens = maxTokens;
+        this.maxTokenLength = maxTokenLength;
+        // 문자열 길이 제한은 파서가 값을 버퍼에 모으는 도중에 확인한다.
+        this.jsonFactory = JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(maxTokenLength).build())
+                .build();
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.parallelBatches = new Semaphore(maxConcurrentBatches);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "token-introspect-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 요청 body의 토큰 배열(["토큰1", "토큰2", ...])을 읽는다.
+     * 토큰 수, 토큰 길이, body 크기(contentLength, 모르면 -1)가 제한을 넘으면 그 자리에서 IntrospectionLimitException
+     * JSON 형식이 잘못되었으면 JsonProcessingException
+     */
+    public List<String> readTokens(InputStream body, long contentLength) throws IOException {
+        // 토큰마다 따옴표, 쉼표, 약간의 공백을 허용한다.
+        long maxBodyLength = (long) maxTokens * (maxTokenLength + 16) + 16;
+        if (contentLength > maxBodyLength) {
+            throw new IntrospectionLimitException("요청 크기가 너무 큽니다: " + contentLength + " bytes");
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return List.of();
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "토큰 배열이 필요합니다.");
+            }
+
+            List<String> tokens = new ArrayList<>();
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null || !token.isScalarValue()) {
+                    throw new JsonParseException(parser, "토큰은 문자열이어야 합니다.");
+                }
+                if (tokens.size() == maxTokens) {
+                    throw new IntrospectionLimitException("한 번에 검증할 수 있는 토큰은 최대 " + maxTokens + "개입니다.");
+                }
+                String value = token == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                if (value != null && value.length() > maxTokenLength) {
+                    throw tokenTooLong();
+                }
+                tokens.add(value);
+            }
+            return tokens;
+        } catch (StreamConstraintsException e) {
+            throw tokenTooLong();
+        }
+    }
+
+    private IntrospectionLimitException tokenTooLong() {
+        return new IntrospectionLimitException("토큰 길이는 최대 " + maxTokenLength + "자입니다.");
+    }
+
+    public List<TokenIntrospectionDto> introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        if (tokens.size() > maxTokens) {
+            throw new IntrospectionLimitException("한 번에 검증할 수 있는 토큰은 최대 " + maxTokens + "개입니다.");
+        }
+
+        // 중복 토큰은 한 번만 검증하고, slots[i]로 원래 위치의 결과를 찾는다.
+        Map<String, Integer> uniqueIndex = new HashMap<>(tokens.size() * 2);
+        List<String> uniqueTokens = new ArrayList<>(tokens.size());
+        int[] slots = new int[tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            Integer index = uniqueIndex.putIfAbsent(token, uniqueTokens.size());
+            if (index == null) {
+                index = uniqueTokens.size();
+                uniqueTokens.add(token);
+            }
+            slots[i] = index;
+        }
+
+        TokenIntrospectionDto[] verified = verifyAll(uniqueTokens);
+
+        List<TokenIntrospectionDto> results = new ArrayList<>(tokens.size());
+        for (int slot : slots) {
+            results.add(verified[slot]);
+        }
+        return results;
+    }
+
+    private TokenIntrospectionDto[] verifyAll(List<String> tokens) {
+        TokenIntrospectionDto[] results = new TokenIntrospectionDto[tokens.size()];
+        int chunks = Math.min(parallelism, tokens.size() / parallelThreshold);
+
+        if (chunks < 2 || !parallelBatches.tryAcquire()) {
+            verifyRange(tokens, results, 0, tokens.size());
+            return results;
+        }
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks - 1);
+            for (int chunk = 1; chunk < chunks; chunk++) {
+                int from = (int) ((long) tokens.size() * chunk / chunks);
+                int to = (int) ((long) tokens.size() * (chunk + 1) / chunks);
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    verifyRange(tokens, results, from, to);
+                    return null;
+                }));
+            }
+            // 첫 번째 구간은 요청 스레드가 직접 처리한다.
+            verifyRange(tokens, results, 0, (int) ((long) tokens.size() / chunks));
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("토큰 검증 중 인터럽트되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("토큰 검증에 실패했습니다.", e.getCause());
+        } finally {
+            parallelBatches.release();
+        }
+    }
+
+    private void verifyRange(List<String> tokens, TokenIntrospectionDto[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = TokenIntrospectionDto.from(verify(tokens.get(i)));
+        }
+    }
+
+    private TokenIntrospection verify(String token) {
+        if (token == null || token.isEmpty() || token.length() > maxTokenLength) {
+            return TokenIntrospection.inactive(TokenIntrospection.Status.INVALID);
+        }
+        return tokenProvider.introspect(token);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.jwttutorial.token.dto;
+
+import com.example.jwttutorial.security.jwt.TokenIntrospection;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 토큰 하나의 introspection 결과 (요청 배열과 같은 순서로 응답한다.)
+ * 응답 크기를 줄이기 위해 ACTIVE가 아니면 status만 내려가고, exp는 epoch 초 단위로 보낸다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionDto {
+
+    private static final Map<TokenIntrospection.Status, TokenIntrospectionDto> INACTIVE = new EnumMap<>(TokenIntrospection.Status.class);
+
+    static {
+        for (TokenIntrospection.Status status : TokenIntrospection.Status.values()) {
+            INACTIVE.put(status, TokenIntrospectionDto.builder().status(status).build());
+        }
+    }
+
+    private TokenIntrospection.Status status;
+
+    private String sub;
+
+    private String auth;
+
+    private Long exp;
+
+    public static TokenIntrospectionDto from(TokenIntrospection introspection) {
+        if (introspection.getStatus() != TokenIntrospection.Status.ACTIVE) {
+            return INACTIVE.get(introspection.getStatus());
+        }
+
+        return TokenIntrospectionDto.builder()
+                .status(introspection.getStatus())
+                .sub(introspection.getSubject())
+                .auth(introspection.getAuthorities())
+                .exp(introspection.getExpiration() == null ? null : introspection.getExpiration().getTime() / 1000)
+                .build();
+    }
+}
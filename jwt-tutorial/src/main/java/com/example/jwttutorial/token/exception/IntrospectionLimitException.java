@@ -0,0 +1,20 @@
+package com.example.jwttutorial.token.exception;
+
+public class IntrospectionLimitException extends RuntimeException {
+
+    public IntrospectionLimitException() {
+        super();
+    }
+
+    public IntrospectionLimitException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IntrospectionLimitException(String message) {
+        super(message);
+    }
+
+    public IntrospectionLimitException(Throwable cause) {
+        super(cause);
+    }
+}
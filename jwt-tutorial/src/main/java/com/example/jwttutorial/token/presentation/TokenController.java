@@ -0,0 +1,44 @@
+package com.example.jwttutorial.token.presentation;
+
+import com.example.jwttutorial.token.application.TokenIntrospectionService;
+import com.example.jwttutorial.token.dto.TokenIntrospectionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class TokenController {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    /**
+     * 내부 서비스용 토큰 일괄 검증 API
+     * 요청 : ["토큰1", "토큰2", ...]
+     * 응답 : 요청과 같은 순서의 [{"status":"ACTIVE","sub":"...","auth":"...","exp":...}, {"status":"EXPIRED"}, ...]
+     *
+     * @RequestBody로 받으면 제한을 확인하기 전에 배열 전체를 읽어 버리므로, body는 읽으면서 제한을 확인한다.
+     */
+    @PostMapping("/token/introspect")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<List<TokenIntrospectionDto>> introspect(HttpServletRequest request) throws IOException {
+        List<String> tokens;
+        try {
+            tokens = tokenIntrospectionService.readTokens(request.getInputStream(), request.getContentLengthLong());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException(e.getOriginalMessage(), e, new ServletServerHttpRequest(request));
+        }
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(tokens));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.jwttutorial.user.application;
+
+import com.example.jwttutorial.user.domain.Authority;
+import com.example.jwttutorial.user.domain.Repository.AuthorityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * authority 테이블을 메모리에 들고 있으면서 role_mask <-> 권한 목록 변환을 담당한다.
+ * 권한 종류는 몇 개 되지 않으므로 role_mask 값마다 만들어진 권한 목록을 재사용한다.
+ *
+ * data.sql이 JPA 초기화 이후에 실행되기 때문에 기동 시점이 아니라 처음 사용할 때 읽어온다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorityRegistry {
+
+    private final AuthorityRepository authorityRepository;
+
+    /**
+     * join-table : user_authority 조인으로 권한을 읽는다. (기본값)
+     * bitmask : user.role_mask 한 행으로 권한을 읽는다. 쓰기 시에는 두 방식 모두 항상 함께 저장된다.
+     */
+    @Value("${authority.storage-mode:join-table}")
+    private String storageMode;
+
+    private final Map<Long, List<Authority>> authoritiesByMask = new ConcurrentHashMap<>();
+    private final Map<Long, List<GrantedAuthority>> grantedAuthoritiesByMask = new ConcurrentHashMap<>();
+    private volatile Map<String, Authority> authoritiesByName;
+    private volatile Authority[] authoritiesById;
+
+    public boolean isRoleMaskEnabled() {
+        return "bitmask".equals(storageMode);
+    }
+
+    public Authority getAuthority(String authorityName) {
+        Authority authority = byName().get(authorityName);
+        if (authority == null) {
+            reload();
+            authority = byName().get(authorityName);
+        }
+        if (authority == null) {
+            throw new IllegalStateException(authorityName + " 권한이 authority 테이블에 없습니다.");
+        }
+        return authority;
+    }
+
+    public List<Authority> getAuthorities(long roleMask) {
+        return authoritiesByMask.computeIfAbsent(roleMask, this::decode);
+    }
+
+    public List<GrantedAuthority> getGrantedAuthorities(long roleMask) {
+        return grantedAuthoritiesByMask.computeIfAbsent(roleMask, mask -> getAuthorities(mask).stream()
+                .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority.getAuthorityName()))
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    private List<Authority> decode(long roleMask) {
+        Authority[] byId = byId();
+        List<Authority> authorities = new ArrayList<>(Long.bitCount(roleMask));
+        for (long remaining = roleMask; remaining != 0; remaining &= remaining - 1) {
+            int authorityId = Long.numberOfTrailingZeros(remaining);
+            if (authorityId >= byId.length || byId[authorityId] == null) {
+                // 기동 이후에 추가된 권한일 수 있으니 한 번 다시 읽는다.
+                reload();
+                byId = byId();
+            }
+            if (authorityId >= byId.length || byId[authorityId] == null) {
+                throw new IllegalStateException("role_mask에 알 수 없는 권한 비트가 있습니다: " + authorityId);
+            }
+            authorities.add(byId[authorityId]);
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+
+    private Map<String, Authority> byName() {
+        if (authoritiesByName == null) {
+            reload();
+        }
+        return authoritiesByName;
+    }
+
+    private Authority[] byId() {
+        if (authoritiesById == null) {
+            reload();
+        }
+        return authoritiesById;
+    }
+
+    private synchronized void reload() {
+        List<Authority> authorities = authorityRepository.findAll();
+
+        Authority[] byId = new Authority[Authority.MAX_AUTHORITY_ID + 1];
+        for (Authority authority : authorities) {
+            if (authority.getAuthorityId() != null) {
+                authority.bit(); // 범위 검증
+                byId[authority.getAuthorityId()] = authority;
+            }
+        }
+
+        this.authoritiesById = byId;
+        this.authoritiesByName = authorities.stream()
+                .collect(Collectors.toUnmodifiableMap(Authority::getAuthorityName, Function.identity()));
+    }
+}
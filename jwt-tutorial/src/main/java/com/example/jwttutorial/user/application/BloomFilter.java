@@ -0,0 +1,105 @@
+package com.example.jwttutorial.user.application;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 전용 Bloom filter
+ *
+ * mightContain이 false이면 확실히 없는 값이고, true이면 있을 수도 있는 값이다. (false positive만 있고 false negative는 없다.)
+ * 비트 배열은 AtomicLongArray라서 put과 mightContain을 여러 스레드에서 동시에 호출해도 된다.
+ * 해시 k개는 64bit 해시 하나를 둘로 나눈 double hashing(h1 + i * h2)으로 만든다.
+ */
+class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        int words = (int) ((bitSize + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * expectedInsertions개를 넣었을 때 오탐률이 falsePositiveRate가 되도록 크기를 정하되, maxBytes를 넘지 않게 한다.
+     * 메모리 한도 때문에 크기가 줄어들면 그만큼 오탐률이 올라간다. (expectedFalsePositiveRate로 확인)
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate, long maxBytes) {
+        long n = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long maxBits = Math.min(maxBytes * 8, (long) Integer.MAX_VALUE * 64);
+        long bitSize = Math.max(64, Math.min(optimalBits, maxBits));
+        int hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, Math.round((double) bitSize / n * LN2)));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, bitSize);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                long witness = bits.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 현재 채워진 비트 비율로 계산한 오탐률 (fill ratio ^ k)
+     */
+    double expectedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashFunctions);
+    }
+
+    long sizeInBytes() {
+        return bitSize / 8;
+    }
+
+    /**
+     * 문자(char) 단위 64bit 해시 (murmur3의 fmix64로 마무리)
+     */
+    private static long hash(String value) {
+        long h = 0x9E3779B97F4A7C15L ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0xC6A4A7935BD1E995L;
+            h = Long.rotateLeft(h, 31);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,17 +1,25 @@
 package com.example.jwttutorial.user.application;
 
+import com.example.jwttutorial.audit.AuthAuditLog;
+import com.example.jwttutorial.audit.AuthAuditType;
+import com.example.jwttutorial.credential.CredentialChangeLog;
+import com.example.jwttutorial.jfr.UserLoadEvent;
+import com.example.jwttutorial.security.password.LoginVerificationCache;
 import com.example.jwttutorial.user.domain.Repository.UserRepository;
 import com.example.jwttutorial.user.domain.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 
 /**
@@ -19,30 +27,99 @@ import java.util.stream.Collectors;
  */
 @Component("userDetailsService")
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final AuthorityRegistry authorityRegistry;
+    private final AuthAuditLog authAuditLog;
+    private final UsernameFilter usernameFilter;
+    private final LoginVerificationCache loginVerificationCache;
+    private final CredentialChangeLog credentialChangeLog;
 
     /**
      * 로그인시에 DB에서 유저정보와 권한정보를 가져오게 된다.
      * 해당 정보를 기반으로 userdetails.User 객체를 생성해서 리턴한다.
+     * authority.storage-mode가 bitmask이면 user_authority 조인 없이 role_mask로 권한을 만든다.
+     *
+     * UsernameFilter가 확실히 없는 유저라고 하면 DB를 조회하지 않는다.
+     * 이때 응답 시간으로 유저 존재 여부가 드러나지 않도록 평소 DB 조회 시간만큼 기다린다.
+     * (비밀번호 해시 비교 시간은 DaoAuthenticationProvider가 없는 유저에도 더미 해시로 맞춰준다.)
      */
     @Override
     @Transactional
     public UserDetails loadUserByUsername(final String username) {
-        return userRepository.findOneWithAuthoritiesByUsername(username)
-                .map(user -> createUser(username, user))
-                .orElseThrow(() -> new UsernameNotFoundException(username + " -> 데이터베이스에서 찾을 수 없습니다."));
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        String outcome = UserLoadEvent.NOT_FOUND;
+        try {
+            if (usernameFilter.isDefinitelyAbsent(username)) {
+                outcome = UserLoadEvent.FILTERED;
+                LockSupport.parkNanos(usernameFilter.typicalLookupNanos());
+                throw userNotFound(username);
+            }
+
+            UserDetails userDetails = loadUser(username);
+            outcome = UserLoadEvent.FOUND;
+            return userDetails;
+        } catch (DeactivatedUserException e) {
+            outcome = UserLoadEvent.DEACTIVATED;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.storageMode = authorityRegistry.isRoleMaskEnabled() ? "bitmask" : "join-table";
+                event.commit();
+            }
+        }
     }
 
-    private org.springframework.security.core.userdetails.User createUser(String username, User user) {
-        if (!user.isActivated()) {
-            throw new RuntimeException(username + " -> 활성화되어 있지 않습니다.");
+    private UserDetails loadUser(String username) {
+        long startedAt = System.nanoTime();
+        Optional<UserDetails> userDetails = authorityRegistry.isRoleMaskEnabled()
+                ? userRepository.findOneByUsername(username)
+                        .map(user -> createUser(username, user, authorityRegistry.getGrantedAuthorities(user.getRoleMask())))
+                : userRepository.findOneWithAuthoritiesByUsername(username)
+                        .map(user -> createUser(username, user, user.getAuthorities().stream()
+                                .map(authority -> new SimpleGrantedAuthority(authority.getAuthorityName()))
+                                .collect(Collectors.toList())));
+        usernameFilter.recordLookup(System.nanoTime() - startedAt);
+
+        if (userDetails.isEmpty()) {
+            usernameFilter.recordFalsePositive();
+            throw userNotFound(username);
         }
+        return userDetails.get();
+    }
+
+    /**
+     * 로그인에 성공했는데 저장된 해시의 비용이 목표 범위를 벗어났다면(PasswordEncoder.upgradeEncoding)
+     * DaoAuthenticationProvider가 방금 입력받은 비밀번호로 새 해시를 만들어 이 메서드를 호출한다.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findOneByUsername(user.getUsername())
+                .ifPresent(entity -> entity.changePassword(newPassword));
+        loginVerificationCache.invalidate(user.getUsername());
+        credentialChangeLog.record(user.getUsername());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    private UsernameNotFoundException userNotFound(String username) {
+        authAuditLog.record(AuthAuditType.USER_NOT_FOUND, username, null);
+        return new UsernameNotFoundException(username + " -> 데이터베이스에서 찾을 수 없습니다.");
+    }
 
-        List<GrantedAuthority> grantedAuthorities = user.getAuthorities().stream()
-                .map(authority -> new SimpleGrantedAuthority(authority.getAuthorityName()))
-                .collect(Collectors.toList());
+    private org.springframework.security.core.userdetails.User createUser(String username, User user,
+                                                                          List<? extends GrantedAuthority> grantedAuthorities) {
+        if (!user.isActivated()) {
+            authAuditLog.record(AuthAuditType.USER_DEACTIVATED, username, null);
+            throw new DeactivatedUserException(username + " -> 활성화되어 있지 않습니다.");
+        }
 
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
@@ -50,4 +127,14 @@ public class CustomUserDetailsService implements UserDetailsService {
                 grantedAuthorities
         );
     }
+
+    /**
+     * 비활성 유저 (기존과 같이 RuntimeException으로 전달되며, JFR 이벤트의 결과 구분에만 사용한다.)
+     */
+    private static class DeactivatedUserException extends RuntimeException {
+
+        DeactivatedUserException(String message) {
+            super(message);
+        }
+    }
 }
\ No newline at end of file
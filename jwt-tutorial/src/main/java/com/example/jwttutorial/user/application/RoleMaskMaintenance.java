@@ -0,0 +1,134 @@
+package com.example.jwttutorial.user.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * user.role_mask와 user_authority의 일관성 검사 및 복구
+ *
+ * user_authority를 기준(원본)으로 보고, 유저별로 계산한 비트마스크가 role_mask와 다르면 불일치로 본다.
+ * 기존 데이터의 마이그레이션(db/role-mask-migration.sql 이후 백필)에도 repair()를 그대로 사용한다.
+ * 두 쿼리 모두 user_id 순서로 스트리밍하며 처리하므로 테이블 크기와 관계없이 메모리 사용량이 일정하다.
+ */
+@Component
+public class RoleMaskMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleMaskMaintenance.class);
+
+    private static final String ROLE_MASK_SQL =
+            "select u.user_id, u.role_mask, a.authority_id " +
+            "from user u " +
+            "left join user_authority ua on ua.user_id = u.user_id " +
+            "left join authority a on a.authority_name = ua.authority_name " +
+            "order by u.user_id";
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean bitmaskMode;
+    private final boolean repairOnStartup;
+
+    public RoleMaskMaintenance(DataSource dataSource,
+                               @Value("${authority.storage-mode:join-table}") String storageMode,
+                               @Value("${authority.role-mask.repair-on-startup:false}") boolean repairOnStartup) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(BATCH_SIZE);
+        this.bitmaskMode = "bitmask".equals(storageMode);
+        this.repairOnStartup = repairOnStartup;
+    }
+
+    /**
+     * role_mask로 권한을 읽는 모드라면 기동 시 한 번 검사하고, 설정에 따라 바로 복구한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        if (!bitmaskMode) {
+            return;
+        }
+
+        long inconsistent = repairOnStartup ? repair() : verify();
+        if (inconsistent == 0) {
+            logger.info("role_mask 일관성 검사 완료: 불일치 없음");
+        } else if (repairOnStartup) {
+            logger.warn("role_mask 불일치 {}건을 user_authority 기준으로 복구했습니다.", inconsistent);
+        } else {
+            logger.error("role_mask가 user_authority와 다른 유저가 {}건 있습니다. authority.role-mask.repair-on-startup으로 복구할 수 있습니다.", inconsistent);
+        }
+    }
+
+    /**
+     * @return role_mask가 user_authority와 다른 유저 수
+     */
+    public long verify() {
+        long[] count = new long[1];
+        scan((userId, expected) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * role_mask를 user_authority 기준으로 다시 계산해서 저장한다.
+     * @return 수정한 유저 수
+     */
+    public long repair() {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long[] count = new long[1];
+
+        scan((userId, expected) -> {
+            batch.add(new Object[]{expected, userId});
+            count[0]++;
+            if (batch.size() == BATCH_SIZE) {
+                flush(batch);
+            }
+        });
+        flush(batch);
+        return count[0];
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("update user set role_mask = ? where user_id = ?", batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * role_mask가 user_authority와 다른 유저마다 (user_id, 올바른 role_mask)로 handler를 호출한다.
+     */
+    private void scan(MismatchHandler handler) {
+        long[] current = {-1, 0, 0}; // user_id, 저장된 role_mask, 계산한 role_mask
+
+        jdbcTemplate.query(ROLE_MASK_SQL, rs -> {
+            long userId = rs.getLong(1);
+            if (userId != current[0]) {
+                if (current[0] >= 0 && current[1] != current[2]) {
+                    handler.mismatch(current[0], current[2]);
+                }
+                current[0] = userId;
+                current[1] = rs.getLong(2);
+                current[2] = 0;
+            }
+            int authorityId = rs.getInt(3);
+            if (!rs.wasNull()) {
+                current[2] |= 1L << authorityId;
+            }
+        });
+
+        if (current[0] >= 0 && current[1] != current[2]) {
+            handler.mismatch(current[0], current[2]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MismatchHandler {
+        void mismatch(long userId, long expectedRoleMask);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.jwttutorial.user.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 컴플라이언스용 전체 유저/권한 export
+ *
+ * user와 user_authority를 user_id 순서로 조인한 결과를 forward-only 커서로 fetch-size만큼씩 읽으면서
+ * 한 유저의 행이 끝날 때마다 바로 출력 스트림에 쓴다. 메모리에는 현재 유저 한 명의 정보만 남기 때문에
+ * 테이블 크기와 관계없이 사용량이 일정하다.
+ * 모든 행에 user_id가 포함되므로, 중단되면 마지막으로 받은 user_id를 afterId로 넘겨 이어서 받을 수 있다.
+ *
+ * MySQL은 JDBC URL에 useCursorFetch=true가 있어야 fetch-size 단위로 결과를 가져온다.
+ */
+@Service
+public class UserExportService {
+
+    private static final String EXPORT_SQL =
+            "select u.user_id, u.username, u.nickname, u.activated, ua.authority_name " +
+            "from user u left join user_authority ua on ua.user_id = u.user_id " +
+            "where u.user_id > ? " +
+            "order by u.user_id, ua.authority_name";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportService(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(OutputStream outputStream, ExportFormat format, boolean gzip, long afterId) throws IOException {
+        OutputStream out = gzip
+                ? new GZIPOutputStream(outputStream, BUFFER_SIZE)
+                : new BufferedOutputStream(outputStream, BUFFER_SIZE);
+
+        UserRowWriter writer = format == ExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+        UserRowCollector collector = new UserRowCollector(writer);
+
+        try {
+            // readOnly 트랜잭션이므로 레플리카가 설정되어 있으면 레플리카에서 읽는다.
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, afterId);
+                return statement;
+            }, collector));
+            collector.finish();
+            writer.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 같은 user_id의 연속된 행(권한 수만큼)을 하나로 모아서 writer에 넘긴다.
+     */
+    private static class UserRowCollector implements RowCallbackHandler {
+
+        private final UserRowWriter writer;
+        private final List<String> authorities = new ArrayList<>();
+        private long userId = -1;
+        private String username;
+        private String nickname;
+        private boolean activated;
+
+        UserRowCollector(UserRowWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowUserId = rs.getLong(1);
+            if (rowUserId != userId) {
+                finish();
+                userId = rowUserId;
+                username = rs.getString(2);
+                nickname = rs.getString(3);
+                activated = rs.getBoolean(4);
+            }
+            String authorityName = rs.getString(5);
+            if (authorityName != null) {
+                authorities.add(authorityName);
+            }
+        }
+
+        void finish() {
+            if (userId < 0) {
+                return;
+            }
+            try {
+                writer.write(userId, username, nickname, activated, authorities);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            authorities.clear();
+            userId = -1;
+        }
+    }
+
+    private interface UserRowWriter {
+
+        void write(long userId, String username, String nickname, boolean activated, List<String> authorities) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private class NdjsonWriter implements UserRowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(long userId, String username, String nickname, boolean activated, List<String> authorities) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("userId", userId);
+            generator.writeStringField("username", username);
+            generator.writeStringField("nickname", nickname);
+            generator.writeBooleanField("activated", activated);
+            generator.writeArrayFieldStart("authorities");
+            for (String authority : authorities) {
+                generator.writeString(authority);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeRaw('\n');
+            generator.close();
+        }
+    }
+
+    private static class CsvWriter implements UserRowWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.writer.write("user_id,username,nickname,activated,authorities\n");
+        }
+
+        @Override
+        public void write(long userId, String username, String nickname, boolean activated, List<String> authorities) throws IOException {
+            writer.write(Long.toString(userId));
+            writer.write(',');
+            writeField(username);
+            writer.write(',');
+            writeField(nickname);
+            writer.write(',');
+            writer.write(activated ? "true" : "false");
+            writer.write(',');
+            writeField(String.join("|", authorities));
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.example.jwttutorial.user.application;
 
+import com.example.jwttutorial.credential.CredentialChangeLog;
+import com.example.jwttutorial.jfr.SignupEvent;
 import com.example.jwttutorial.user.domain.Authority;
 import com.example.jwttutorial.user.domain.Repository.UserRepository;
 import com.example.jwttutorial.user.domain.User;
 import com.example.jwttutorial.user.dto.UserDto;
+import com.example.jwttutorial.user.dto.UserPageDto;
 import com.example.jwttutorial.user.exception.DuplicateMemberException;
 import com.example.jwttutorial.user.exception.NotFoundMemberException;
 import com.example.jwttutorial.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 회원가입, 유저정보조회 등의 메소드를 만들기 위한 클래스
@@ -21,22 +32,54 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthorityRegistry authorityRegistry;
+    private final UsernameFilter usernameFilter;
+    private final CredentialChangeLog credentialChangeLog;
 
     /**
      * signup 메서드를 통해 가입한 회원은 USER ROLE을 가지고 있다.
      * data.sql에서 자동 생성되는 admin 계정은 USER, ADMIN ROLE을 가지고 있다.
+     *
+     * UsernameFilter가 확실히 없는 username이라고 하면 중복 조회를 생략한다.
+     * 그 사이 다른 노드에서 같은 username으로 가입했다면 username unique 제약으로 걸러진다.
      */
     @Transactional
     public UserDto signup(UserDto userDto) {
-        if (userRepository.findOneWithAuthoritiesByUsername(userDto.getUsername()).orElse(null) != null) {
-            throw new DuplicateMemberException("이미 가입되어 있는 유저입니다.");
+        SignupEvent event = new SignupEvent();
+        event.begin();
+        boolean duplicateCheckSkipped = usernameFilter.isDefinitelyAbsent(userDto.getUsername());
+        String outcome = null;
+        try {
+            UserDto created = createUser(userDto, duplicateCheckSkipped);
+            outcome = SignupEvent.CREATED;
+            return created;
+        } catch (RuntimeException e) {
+            outcome = e instanceof DuplicateMemberException ? SignupEvent.DUPLICATE : e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.duplicateCheckSkipped = duplicateCheckSkipped;
+                event.commit();
+            }
         }
+    }
 
-        Authority authority = Authority.builder()
-                .authorityName("ROLE_USER")
-                .build();
+    private UserDto createUser(UserDto userDto, boolean duplicateCheckSkipped) {
+        if (!duplicateCheckSkipped) {
+            if (userRepository.findOneByUsername(userDto.getUsername()).isPresent()) {
+                throw new DuplicateMemberException("이미 가입되어 있는 유저입니다.");
+            }
+            usernameFilter.recordFalsePositive();
+        }
+
+        // authorityId까지 채워진 권한을 사용해야 저장 시점에 role_mask가 함께 계산된다.
+        Authority authority = authorityRegistry.getAuthority("ROLE_USER");
 
         User user = User.builder()
                 .username(userDto.getUsername())
@@ -46,7 +89,17 @@ public class UserService {
                 .activated(true)
                 .build();
 
-        return UserDto.from(userRepository.save(user));
+        // insert 전에 반영해야 필터가 이미 있는 유저를 없다고 답하는 순간이 생기지 않는다.
+        usernameFilter.add(user.getUsername());
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateMemberException("이미 가입되어 있는 유저입니다.", e);
+        }
+        // 같은 트랜잭션이므로 가입이 롤백되면 변경 로그도 남지 않는다.
+        credentialChangeLog.record(saved.getUsername());
+        return UserDto.from(saved);
     }
 
     /**
@@ -55,9 +108,8 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserDto getUserWithAuthorities(String username) {
-        return UserDto.from(userRepository.findOneWithAuthoritiesByUsername(username)
-                .orElseThrow(() -> new NotFoundMemberException("Member not found"))
-        );
+        return findUserDto(username)
+                .orElseThrow(() -> new NotFoundMemberException("Member not found"));
     }
 
     /**
@@ -66,10 +118,91 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserDto getMyUserWithAuthorities() {
-        return UserDto.from(
-                SecurityUtil.getCurrentUsername()
-                        .flatMap(userRepository::findOneWithAuthoritiesByUsername)
-                        .orElseThrow(() -> new NotFoundMemberException("Member not found"))
-        );
+        return SecurityUtil.getCurrentUsername()
+                .flatMap(this::findUserDto)
+                .orElseThrow(() -> new NotFoundMemberException("Member not found"));
+    }
+
+    /**
+     * authority.storage-mode가 bitmask이면 user 한 행만 읽고 권한은 role_mask로 채운다.
+     */
+    private Optional<UserDto> findUserDto(String username) {
+        if (authorityRegistry.isRoleMaskEnabled()) {
+            return userRepository.findOneByUsername(username)
+                    .map(user -> UserDto.from(user, authorityRegistry.getAuthorities(user.getRoleMask())));
+        }
+        return userRepository.findOneWithAuthoritiesByUsername(username)
+                .map(UserDto::from);
+    }
+
+    /**
+     * 관리자용 유저 목록 조회 (키셋 페이지네이션)
+     * username 접두어가 없으면 afterId 이후의 유저를 user_id 순서로, 있으면 afterUsername 이후의 유저를 username 순서로 size만큼 가져온다.
+     * 다음 페이지가 있으면 nextCursor에 마지막 user_id를, nextUsername에 마지막 username을 담는다.
+     * 쿼리는 페이지당 2번(user_id 목록, 유저+권한)만 실행된다.
+     */
+    @Transactional(readOnly = true)
+    public UserPageDto getUsers(long afterId, String afterUsername, int size, String usernamePrefix, String role) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String likePrefix = toLikePrefix(usernamePrefix);
+        String authorityName = toAuthorityName(role);
+
+        // 다음 페이지 존재 여부를 알기 위해 하나 더 가져온다.
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Long> userIds = likePrefix == null
+                ? userRepository.findUserIdsAfter(afterId, authorityName, limit)
+                : userRepository.findUserIdsByUsernamePrefixAfter(
+                        likePrefix, afterUsername == null ? "" : afterUsername, authorityName, limit);
+
+        boolean hasNext = userIds.size() > pageSize;
+        List<Long> pageIds = hasNext ? userIds.subList(0, pageSize) : userIds;
+
+        List<UserDto> users = pageIds.isEmpty()
+                ? Collections.emptyList()
+                : orderByIds(userRepository.findAllWithAuthoritiesByUserIdInOrderByUserIdAsc(pageIds), pageIds);
+
+        UserDto last = users.isEmpty() ? null : users.get(users.size() - 1);
+        return UserPageDto.builder()
+                .users(users)
+                .nextCursor(hasNext ? pageIds.get(pageIds.size() - 1) : null)
+                .nextUsername(hasNext && last != null ? last.getUsername() : null)
+                .build();
+    }
+
+    /**
+     * 유저+권한 조회 결과를 첫 번째 쿼리의 순서(user_id 또는 username 순서)대로 다시 정렬한다.
+     */
+    private static List<UserDto> orderByIds(List<User> users, List<Long> userIds) {
+        Map<Long, User> byId = users.stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        return userIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(UserDto::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * LIKE 특수문자를 이스케이프('!')한 접두어 검색 패턴
+     */
+    private static String toLikePrefix(String usernamePrefix) {
+        if (usernamePrefix == null || usernamePrefix.isEmpty()) {
+            return null;
+        }
+        return usernamePrefix
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
+
+    /**
+     * "admin", "ADMIN", "ROLE_ADMIN" 모두 ROLE_ADMIN으로 취급한다.
+     */
+    private static String toAuthorityName(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        String upper = role.trim().toUpperCase();
+        return upper.startsWith("ROLE_") ? upper : "ROLE_" + upper;
     }
 }
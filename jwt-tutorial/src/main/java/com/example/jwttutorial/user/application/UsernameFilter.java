@@ -0,0 +1,299 @@
+package com.example.jwttutorial.user.application;
+
+import com.example.jwttutorial.util.IdGapTracker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * username 존재 여부를 DB 조회 없이 판단하기 위한 메모리 필터 (Bloom filter)
+ *
+ * isDefinitelyAbsent()가 true이면 해당 username은 DB에 확실히 없으므로 조회를 생략할 수 있다.
+ * false이면 있을 수도 있으므로 기존처럼 DB를 조회한다.
+ *
+ * 1. 기동 완료 시 user 테이블 전체 username으로 만든다. 그 전까지는 항상 false(= DB 조회)를 리턴한다.
+ * 2. 이 노드의 회원가입은 DB insert 전에 add()로 바로 반영한다.
+ *    필터 교체와 같은 lock 안에서 넣고, 최근에 넣은 username은 교체할 새 필터에도 다시 넣는다.
+ * 3. 다른 노드에서 가입한 유저는 refresh-interval마다 마지막으로 읽은 user_id 이후의 행과,
+ *    그 사이 아직 커밋되지 않아 건너뛴 user_id(IdGapTracker)를 다시 읽어서 반영한다.
+ * 4. rebuild-interval마다 새 필터를 처음부터 다시 만들어 교체한다. (유저 수 증가에 맞춰 크기 재계산)
+ *
+ * 다른 노드에서 가입한 유저는 다음 refresh(최대 refresh-interval)까지 이 노드에서 "확실히 없음"으로 판단된다.
+ * 그래서 가입 직후 다른 노드로 로그인하면 그 사이에는 실패할 수 있으므로 기본으로는 꺼져 있다. (username-filter.enabled)
+ *
+ * MySQL의 기본 collation(대소문자, 악센트 구분 없음)과 맞추기 위해 소문자 변환 + 악센트 제거한 값으로 저장/조회한다.
+ * 필터가 DB보다 느슨하게 같다고 보는 것은 괜찮지만(DB 조회로 이어질 뿐), 더 엄격하면 있는 유저를 없다고 판단하게 된다.
+ */
+@Component
+public class UsernameFilter implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // DB 조회 시간 EWMA의 가중치 (최근 값 비중)
+    private static final double LOOKUP_EWMA_WEIGHT = 0.05;
+
+    // 이보다 오래 커밋되지 않는 트랜잭션은 없다고 본다. (gap과 최근 가입 username을 기억하는 시간)
+    private static final Duration MAX_TRANSACTION_TIME = Duration.ofMinutes(1);
+    private static final int MAX_GAPS = 10_000;
+    private static final int GAP_QUERY_BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final boolean enabled;
+    private final long minExpectedUsers;
+    private final double falsePositiveRate;
+    private final long maxBytes;
+    private final Duration refreshInterval;
+    private final Duration rebuildInterval;
+
+    private volatile BloomFilter filter;
+    // add()와 필터 교체를 원자적으로 하기 위한 lock
+    private final Object swapLock = new Object();
+    // 최근에 add()한 username과 넣은 시각. rebuild의 전체 조회가 아직 커밋되지 않은 가입을 놓쳐도 새 필터에 다시 넣는다.
+    private final Map<String, Long> recentlyAdded = new ConcurrentHashMap<>();
+    private final IdGapTracker userIds = new IdGapTracker(0, MAX_TRANSACTION_TIME, MAX_GAPS);
+
+    private final LongAdder absentAnswers = new LongAdder();
+    private final LongAdder mightContainAnswers = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile double lookupNanosEwma;
+
+    private ScheduledExecutorService scheduler;
+
+    public UsernameFilter(DataSource dataSource,
+                          @Value("${username-filter.enabled:false}") boolean enabled,
+                          @Value("${username-filter.expected-users:100000}") long minExpectedUsers,
+                          @Value("${username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${username-filter.max-memory:16MB}") DataSize maxMemory,
+                          @Value("${username-filter.refresh-interval:5s}") Duration refreshInterval,
+                          @Value("${username-filter.rebuild-interval:1h}") Duration rebuildInterval,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1_000);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.enabled = enabled;
+        this.minExpectedUsers = minExpectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBytes = maxMemory.toBytes();
+        this.refreshInterval = refreshInterval;
+        this.rebuildInterval = rebuildInterval;
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("username.filter.answers", absentAnswers, LongAdder::sum)
+                .tag("result", "absent").register(registry);
+        FunctionCounter.builder("username.filter.answers", mightContainAnswers, LongAdder::sum)
+                .tag("result", "might-contain").register(registry);
+        FunctionCounter.builder("username.filter.false-positives", falsePositives, LongAdder::sum).register(registry);
+        Gauge.builder("username.filter.false-positive-rate", this, UsernameFilter::observedFalsePositiveRate).register(registry);
+        Gauge.builder("username.filter.expected-false-positive-rate", this,
+                f -> f.filter == null ? Double.NaN : f.filter.expectedFalsePositiveRate()).register(registry);
+        Gauge.builder("username.filter.memory", this, f -> f.filter == null ? 0 : f.filter.sizeInBytes())
+                .baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * @return true이면 DB에 확실히 없는 username
+     */
+    public boolean isDefinitelyAbsent(String username) {
+        BloomFilter current = filter;
+        if (current == null || username == null) {
+            return false;
+        }
+        if (current.mightContain(normalize(username))) {
+            mightContainAnswers.increment();
+            return false;
+        }
+        absentAnswers.increment();
+        return true;
+    }
+
+    /**
+     * 새로 가입하는 username을 반영한다. DB insert 전에 호출해야 조회 사이에 빈틈이 생기지 않는다.
+     */
+    public void add(String username) {
+        if (!enabled) {
+            return;
+        }
+        String key = normalize(username);
+        synchronized (swapLock) {
+            // 첫 필터를 만드는 중이어도 기록해 두어야 교체할 때 빠지지 않는다.
+            recentlyAdded.put(key, System.nanoTime());
+            BloomFilter current = filter;
+            if (current != null) {
+                current.put(key);
+            }
+        }
+    }
+
+    /**
+     * 필터가 "있을 수도 있다"고 했는데 DB에 없었던 경우 (오탐률 메트릭용)
+     */
+    public void recordFalsePositive() {
+        if (filter != null) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * 실제 DB 조회에 걸린 시간을 기록한다. 필터로 조회를 생략했을 때 이만큼 기다려서 응답 시간을 맞춘다.
+     */
+    public void recordLookup(long nanos) {
+        double previous = lookupNanosEwma;
+        lookupNanosEwma = previous == 0 ? nanos : previous + LOOKUP_EWMA_WEIGHT * (nanos - previous);
+    }
+
+    public long typicalLookupNanos() {
+        return (long) lookupNanosEwma;
+    }
+
+    /**
+     * DB에 실제로 없던 username 중 필터가 "있을 수도 있다"고 답한 비율
+     */
+    double observedFalsePositiveRate() {
+        long falsePositive = falsePositives.sum();
+        long actuallyAbsent = falsePositive + absentAnswers.sum();
+        return actuallyAbsent == 0 ? 0 : (double) falsePositive / actuallyAbsent;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        rebuild();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "username-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshSafely,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::rebuildSafely,
+                rebuildInterval.toMillis(), rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * user 테이블 전체를 읽어서 새 필터를 만들고 교체한다.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long scanStartedAt = System.nanoTime();
+        long users = jdbcTemplate.queryForObject("select count(*) from user", Long.class);
+        // 다음 rebuild까지 늘어날 유저를 고려해 현재의 2배를 기준으로 크기를 정한다.
+        BloomFilter next = BloomFilter.create(Math.max(minExpectedUsers, users * 2), falsePositiveRate, maxBytes);
+
+        jdbcTemplate.query("select user_id, username from user", rs -> {
+            userIds.observe(rs.getLong(1));
+            next.put(normalize(rs.getString(2)));
+        });
+
+        synchronized (swapLock) {
+            // 전체 조회가 시작되기 한참 전에 넣은 username은 조회 결과에 이미 들어 있다.
+            long cutoff = scanStartedAt - MAX_TRANSACTION_TIME.toNanos();
+            recentlyAdded.values().removeIf(addedAt -> addedAt - cutoff < 0);
+            recentlyAdded.keySet().forEach(next::put);
+            filter = next;
+        }
+        logger.info("username 필터 생성 완료: 유저 {}명, {}KB, 예상 오탐률 {}",
+                users, next.sizeInBytes() / 1024, String.format("%.4f", next.expectedFalsePositiveRate()));
+    }
+
+    /**
+     * 마지막으로 읽은 user_id 이후에 추가된 유저와, 건너뛴 user_id 중 그 사이 커밋된 유저를 반영한다.
+     */
+    public synchronized void refresh() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        // rebuild와 동시에 실행되지 않으므로, 다음 rebuild의 전체 조회에 확실히 들어갈 기록은 여기서 지운다.
+        long cutoff = System.nanoTime() - MAX_TRANSACTION_TIME.toNanos();
+        recentlyAdded.values().removeIf(addedAt -> addedAt - cutoff < 0);
+
+        List<Long> gaps = userIds.pendingGaps();
+        jdbcTemplate.query("select user_id, username from user where user_id > ? order by user_id", rs -> {
+            userIds.observe(rs.getLong(1));
+            current.put(normalize(rs.getString(2)));
+        }, userIds.highWaterMark());
+
+        for (int from = 0; from < gaps.size(); from += GAP_QUERY_BATCH_SIZE) {
+            List<Long> batch = gaps.subList(from, Math.min(gaps.size(), from + GAP_QUERY_BATCH_SIZE));
+            namedParameterJdbcTemplate.query("select user_id, username from user where user_id in (:userIds)",
+                    Map.of("userIds", batch), rs -> {
+                        userIds.observe(rs.getLong(1));
+                        current.put(normalize(rs.getString(2)));
+                    });
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("username 필터 갱신에 실패했습니다.", e);
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("username 필터 재생성에 실패했습니다. 기존 필터를 계속 사용합니다.", e);
+        }
+    }
+
+    static String normalize(String username) {
+        if (isAscii(username)) {
+            return username.toLowerCase(Locale.ROOT);
+        }
+        String folded = Normalizer.normalize(username, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -15,7 +15,23 @@ import lombok.*;
 @NoArgsConstructor
 public class Authority {
 
+    public static final int MAX_AUTHORITY_ID = Long.SIZE - 1;
+
     @Id
     @Column(name = "authority_name", length = 50)
     private String authorityName;
+
+    /**
+     * user.role_mask에서 이 권한이 차지하는 비트 위치 (0 ~ 63)
+     * 한 번 정해진 값은 바꾸지 않는다.
+     */
+    @Column(name = "authority_id", unique = true)
+    private Integer authorityId;
+
+    public long bit() {
+        if (authorityId == null || authorityId < 0 || authorityId > MAX_AUTHORITY_ID) {
+            throw new IllegalStateException(authorityName + " 권한의 authority_id가 올바르지 않습니다: " + authorityId);
+        }
+        return 1L << authorityId;
+    }
 }
@@ -1,9 +1,14 @@
 package com.example.jwttutorial.user.domain.Repository;
 
 import com.example.jwttutorial.user.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -16,4 +21,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesByUsername(String username);
+
+    /**
+     * 권한 정보를 role_mask로 읽을 때(authority.storage-mode: bitmask) 사용한다. user 한 행만 조회한다.
+     */
+    Optional<User> findOneByUsername(String username);
+
+    /**
+     * 키셋 페이지네이션: OFFSET 대신 마지막으로 본 user_id 이후부터 PK 순서로 읽기 때문에
+     * 몇 번째 페이지든 PK 범위 스캔으로 시작한다.
+     * 권한 필터는 PK 순서로 읽으면서 user_authority의 PK로 확인하므로, 드문 권한일수록 한 페이지를 채우기 위해 더 많은 행을 읽는다.
+     * 조건에 맞는 user_id만 먼저 가져오고 권한 정보는 findAllWithAuthoritiesByUserIdIn에서 한 번에 가져온다.
+     */
+    @Query("select u.userId from User u " +
+            "where u.userId > :afterId " +
+            "and (:authorityName is null or exists " +
+            "(select 1 from u.authorities a where a.authorityName = :authorityName)) " +
+            "order by u.userId")
+    List<Long> findUserIdsAfter(@Param("afterId") long afterId,
+                                @Param("authorityName") String authorityName,
+                                Pageable pageable);
+
+    /**
+     * username 접두어 검색용 키셋 페이지네이션: username 순서로 마지막으로 본 username 이후부터 읽는다.
+     * username의 unique 인덱스(InnoDB 보조 인덱스라 (username, user_id) 순서)를 접두어 범위로 타고 인덱스 순서대로 읽으므로
+     * filesort 없이 조회된다. 권한 필터는 findUserIdsAfter와 같이 읽은 행마다 확인한다.
+     */
+    @Query("select u.userId from User u " +
+            "where u.username like :usernamePrefix escape '!' " +
+            "and u.username > :afterUsername " +
+            "and (:authorityName is null or exists " +
+            "(select 1 from u.authorities a where a.authorityName = :authorityName)) " +
+            "order by u.username")
+    List<Long> findUserIdsByUsernamePrefixAfter(@Param("usernamePrefix") String usernamePrefix,
+                                                @Param("afterUsername") String afterUsername,
+                                                @Param("authorityName") String authorityName,
+                                                Pageable pageable);
+
+    /**
+     * 한 페이지에 해당하는 유저들과 권한 정보를 한 번의 쿼리로 가져온다. (N+1 방지)
+     */
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByUserIdInOrderByUserIdAsc(Collection<Long> userIds);
 }
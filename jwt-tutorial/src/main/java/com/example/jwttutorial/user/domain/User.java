@@ -2,6 +2,7 @@ package com.example.jwttutorial.user.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 
 import java.util.Set;
 
@@ -21,7 +22,7 @@ public class User {
     @Column(name = "username", length = 50, unique = true)
     private String username;
 
-    @Column(name = "password", length = 100)
+    @Column(name = "password", length = 255)
     private String password;
 
     @Column(name = "nickname", length = 50)
@@ -30,10 +31,45 @@ public class User {
     @Column(name = "activated")
     private boolean activated;
 
+    /**
+     * authorities를 Authority.authorityId 위치의 비트로 표현한 값
+     * user_authority 조인 없이 user 한 행만으로 권한을 알 수 있도록 함께 저장한다. (authority.storage-mode: bitmask)
+     */
+    @Column(name = "role_mask", nullable = false)
+    private long roleMask;
+
     @ManyToMany
     @JoinTable(
             name = "user_authority",
             joinColumns = {@JoinColumn(name = "user_id", referencedColumnName = "user_id")},
             inverseJoinColumns = {@JoinColumn(name = "authority_name", referencedColumnName = "authority_name")})
     private Set<Authority> authorities;
+
+    /**
+     * 해시 파라미터가 바뀌어 다시 인코딩된 비밀번호를 저장할 때 사용한다.
+     */
+    public void changePassword(String encodedPassword) {
+        this.password = encodedPassword;
+    }
+
+    /**
+     * 저장/수정 시점에 role_mask를 user_authority와 같은 내용으로 맞춘다.
+     * authorityId를 모르는 권한이 섞여 있으면 기존 값을 유지한다. (RoleMaskMaintenance로 검증/복구)
+     */
+    @PrePersist
+    @PreUpdate
+    void syncRoleMask() {
+        if (authorities == null || !Hibernate.isInitialized(authorities)) {
+            return;
+        }
+
+        long mask = 0;
+        for (Authority authority : authorities) {
+            if (authority.getAuthorityId() == null) {
+                return;
+            }
+            mask |= authority.bit();
+        }
+        this.roleMask = mask;
+    }
 }
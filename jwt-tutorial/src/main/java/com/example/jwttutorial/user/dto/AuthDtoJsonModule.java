@@ -0,0 +1,178 @@
+package com.example.jwttutorial.user.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 로그인/회원가입 경로에서 매 요청마다 오가는 DTO 전용 Jackson 직렬화기
+ *
+ * BeanSerializer/BeanDeserializer는 프로퍼티 목록을 돌면서 리플렉션(또는 Blackbird가 만든 람다)으로 값을 읽고 쓰지만,
+ * 여기서는 필드를 직접 읽고 쓰며 필드 이름도 미리 인코딩해 둔 SerializedString을 재사용한다.
+ *
+ * 출력 JSON은 기존 Lombok DTO를 Jackson 기본 설정으로 직렬화한 결과와 같다.
+ * (필드 순서, null 값 포함, UserDto.password는 쓰지 않음)
+ * 입력은 알 수 없는 필드를 무시하고, 문자열 필드에 숫자/boolean이 오면 문자열로 받는 Jackson 기본 동작을 따른다.
+ */
+public class AuthDtoJsonModule extends SimpleModule {
+
+    private static final SerializedString TOKEN = new SerializedString("token");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString NICKNAME = new SerializedString("nickname");
+    private static final SerializedString AUTHORITY_DTO_SET = new SerializedString("authorityDtoSet");
+    private static final SerializedString AUTHORITY_NAME = new SerializedString("authorityName");
+
+    public AuthDtoJsonModule() {
+        super("AuthDtoJsonModule");
+        addSerializer(TokenDto.class, new TokenDtoSerializer());
+        addSerializer(UserDto.class, new UserDtoSerializer());
+        addSerializer(AuthorityDto.class, new AuthorityDtoSerializer());
+        addDeserializer(LoginDto.class, new LoginDtoDeserializer());
+        addDeserializer(UserDto.class, new UserDtoDeserializer());
+    }
+
+    static class TokenDtoSerializer extends JsonSerializer<TokenDto> {
+
+        @Override
+        public void serialize(TokenDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            writeToken(gen, value.getToken());
+        }
+    }
+
+    /**
+     * TokenDto와 같은 JSON({"token":...})을 TokenDto 객체 없이 바로 쓴다. (로그인 응답)
+     */
+    public static void writeToken(JsonGenerator gen, String token) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(TOKEN);
+        gen.writeString(token);
+        gen.writeEndObject();
+    }
+
+    static class AuthorityDtoSerializer extends JsonSerializer<AuthorityDto> {
+
+        @Override
+        public void serialize(AuthorityDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(AUTHORITY_NAME);
+            gen.writeString(value.getAuthorityName());
+            gen.writeEndObject();
+        }
+    }
+
+    static class UserDtoSerializer extends JsonSerializer<UserDto> {
+
+        @Override
+        public void serialize(UserDto value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(USERNAME);
+            gen.writeString(value.getUsername());
+            gen.writeFieldName(NICKNAME);
+            gen.writeString(value.getNickname());
+            gen.writeFieldName(AUTHORITY_DTO_SET);
+
+            Set<AuthorityDto> authorities = value.getAuthorityDtoSet();
+            if (authorities == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(authorities, authorities.size());
+                for (AuthorityDto authority : authorities) {
+                    if (authority == null) {
+                        gen.writeNull();
+                        continue;
+                    }
+                    gen.writeStartObject(authority);
+                    gen.writeFieldName(AUTHORITY_NAME);
+                    gen.writeString(authority.getAuthorityName());
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static class LoginDtoDeserializer extends JsonDeserializer<LoginDto> {
+
+        @Override
+        public LoginDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p, ctxt, LoginDto.class);
+
+            String username = null;
+            String password = null;
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "username" -> username = readString(p, ctxt);
+                    case "password" -> password = readString(p, ctxt);
+                    default -> p.skipChildren();
+                }
+            }
+            return new LoginDto(username, password);
+        }
+    }
+
+    static class UserDtoDeserializer extends JsonDeserializer<UserDto> {
+
+        private volatile JavaType authoritySetType;
+
+        @Override
+        public UserDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            expectObject(p, ctxt, UserDto.class);
+
+            UserDto.UserDtoBuilder builder = UserDto.builder();
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "username" -> builder.username(readString(p, ctxt));
+                    case "password" -> builder.password(readString(p, ctxt));
+                    case "nickname" -> builder.nickname(readString(p, ctxt));
+                    // 회원가입에서는 사용하지 않는 필드라 기본 역직렬화에 맡긴다.
+                    case "authorityDtoSet" -> builder.authorityDtoSet(p.currentToken() == JsonToken.VALUE_NULL
+                            ? null : ctxt.readValue(p, authoritySetType(ctxt)));
+                    default -> p.skipChildren();
+                }
+            }
+            return builder.build();
+        }
+
+        private JavaType authoritySetType(DeserializationContext ctxt) {
+            JavaType type = authoritySetType;
+            if (type == null) {
+                type = ctxt.getTypeFactory().constructCollectionType(Set.class, AuthorityDto.class);
+                authoritySetType = type;
+            }
+            return type;
+        }
+    }
+
+    private static void expectObject(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            ctxt.reportWrongTokenException(type, JsonToken.START_OBJECT, null);
+        }
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getValueAsString();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jwttutorial.user.dto;
 
+import com.example.jwttutorial.user.domain.Authority;
 import com.example.jwttutorial.user.domain.User;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
@@ -7,6 +8,7 @@ import lombok.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -38,10 +40,19 @@ public class UserDto {
     public static UserDto from(User user) {
         if (user == null) return null;
 
+        return from(user, user.getAuthorities());
+    }
+
+    /**
+     * 권한 정보를 user.authorities가 아닌 다른 곳(role_mask 등)에서 가져온 경우
+     */
+    public static UserDto from(User user, Collection<Authority> authorities) {
+        if (user == null) return null;
+
         return UserDto.builder()
                 .username(user.getUsername())
                 .nickname(user.getNickname())
-                .authorityDtoSet(user.getAuthorities().stream()
+                .authorityDtoSet(authorities.stream()
                         .map(authority -> AuthorityDto.builder().authorityName(authority.getAuthorityName()).build())
                         .collect(Collectors.toSet()))
                 .build();
@@ -0,0 +1,23 @@
+package com.example.jwttutorial.user.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 관리자 유저 목록 조회 응답 dto
+ * nextCursor가 null이면 마지막 페이지
+ * username 접두어로 검색할 때는 nextUsername을 다음 요청의 afterUsername으로 넘긴다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDto {
+
+    private List<UserDto> users;
+
+    private Long nextCursor;
+
+    private String nextUsername;
+}
@@ -1,16 +1,21 @@
 package com.example.jwttutorial.user.presentation;
 
+import com.example.jwttutorial.audit.AuthAuditLog;
+import com.example.jwttutorial.audit.AuthAuditType;
+import com.example.jwttutorial.jfr.TokenIssuanceEvent;
 import com.example.jwttutorial.security.jwt.JwtFilter;
 import com.example.jwttutorial.security.jwt.TokenProvider;
+import com.example.jwttutorial.user.dto.AuthDtoJsonModule;
 import com.example.jwttutorial.user.dto.LoginDto;
-import com.example.jwttutorial.user.dto.TokenDto;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -18,23 +23,39 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api")
-@RequiredArgsConstructor
 public class AuthController {
 
     private final TokenProvider tokenProvider;
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
+    private final AuthAuditLog authAuditLog;
+    private final JsonFactory jsonFactory;
+
+    public AuthController(TokenProvider tokenProvider,
+                          AuthenticationManagerBuilder authenticationManagerBuilder,
+                          AuthAuditLog authAuditLog,
+                          ObjectMapper objectMapper) {
+        this.tokenProvider = tokenProvider;
+        this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.authAuditLog = authAuditLog;
+        this.jsonFactory = objectMapper.getFactory();
+    }
 
     /**
      * 로그인 API
      * 약간 어려운 내용. 내부 로직을 이해해야할 필요.
      * https://www.inflearn.com/course/lecture?courseSlug=%EC%8A%A4%ED%94%84%EB%A7%81%EB%B6%80%ED%8A%B8-jwt&unitId=65762&tab=community&q=349502&category=questionDetail
      * https://lilly021.com/spring-security-architecture
+     *
+     * 응답 body({"token":...})는 TokenDto를 만들지 않고 JsonGenerator로 응답 스트림에 바로 쓴다.
      */
     @PostMapping("/authenticate")
-    public ResponseEntity<TokenDto> authorize(@Valid @RequestBody LoginDto loginDto) {
+    public void authorize(@Valid @RequestBody LoginDto loginDto, HttpServletResponse response) throws IOException {
+        TokenIssuanceEvent event = new TokenIssuanceEvent();
+        event.begin();
 
         // 1. UsernamePasswordAuthenticationToken 객체를 만들고
         UsernamePasswordAuthenticationToken authenticationToken =
@@ -46,18 +67,39 @@ public class AuthController {
         // 5. 각각의 전략을 갖는 authentication provider들은 시스템으로부터 user 정보를 받아야한다. 각각의 provider들은 user를 얻는 방식이 다를뿐이다.
         // 6. 내부 로직을 따라가보니 DaoAuthenticationProvider에서 loadUserByUsername가 구현되어있는 것을 확인 가능.
         // 결국 아래코드 상에서 authenticate 메서드가 실행이 될 때 CustomUserDetailsService의 loadUserByUsername 메서드가 실행되어 Dao를 통해 user정보를 얻게된다.
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        Authentication authentication;
+        try {
+            authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        } catch (AuthenticationException e) {
+            // 감사 로그는 버퍼에 넣기만 하므로 로그인 응답 시간에는 영향을 주지 않는다.
+            authAuditLog.record(AuthAuditType.LOGIN_FAILURE, loginDto.getUsername(), e.getClass().getSimpleName());
+            commit(event, e.getClass().getSimpleName());
+            throw e;
+        }
+        authAuditLog.record(AuthAuditType.LOGIN_SUCCESS, loginDto.getUsername(), null);
 
         // 인증에 성공하면(로그인에서 입력했던 id에 해당하는 DB에 올바른 user가 있다면) filter는 해당 Authentication를 SecurityContext에 set한다.
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         String jwt = tokenProvider.createToken(authentication);
+        commit(event, TokenIssuanceEvent.ISSUED);
 
         // Response Header에도 JWT 토큰을 넣어주고,
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader(JwtFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
 
         // Response Body에도 JWT 토큰을 넣어서 리턴해준다.
-        return new ResponseEntity<>(new TokenDto(jwt), httpHeaders, HttpStatus.OK);
+        try (JsonGenerator generator = jsonFactory.createGenerator(response.getOutputStream())) {
+            AuthDtoJsonModule.writeToken(generator, jwt);
+        }
+    }
+
+    private static void commit(TokenIssuanceEvent event, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
     }
 }
@@ -1,14 +1,21 @@
 package com.example.jwttutorial.user.presentation;
 
+import com.example.jwttutorial.user.application.ExportFormat;
+import com.example.jwttutorial.user.application.UserExportService;
 import com.example.jwttutorial.user.application.UserService;
 import com.example.jwttutorial.user.dto.UserDto;
+import com.example.jwttutorial.user.dto.UserPageDto;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 
@@ -18,6 +25,7 @@ import java.io.IOException;
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
 
     @GetMapping("/hello")
     public ResponseEntity<String> hello() {
@@ -54,4 +62,49 @@ public class UserController {
     public ResponseEntity<UserDto> getUserInfo(@PathVariable String username) {
         return ResponseEntity.ok(userService.getUserWithAuthorities(username));
     }
+
+    /**
+     * 관리자용 유저 목록 조회
+     * 첫 페이지는 afterId 없이 호출하고, 이후에는 응답의 nextCursor를 afterId로 넘긴다.
+     * username 접두어로 검색할 때는 username 순서로 정렬되며, 응답의 nextUsername을 afterUsername으로 넘긴다.
+     * ex) GET /api/users?size=50&role=ADMIN&afterId=1024
+     * ex) GET /api/users?size=50&username=kim&afterUsername=kim123
+     */
+    @GetMapping("/users")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<UserPageDto> getUsers(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(required = false) String afterUsername,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String role
+    ) {
+        return ResponseEntity.ok(userService.getUsers(afterId, afterUsername, size, username, role));
+    }
+
+    /**
+     * 관리자용 전체 유저/권한 export (NDJSON 또는 CSV)
+     * 응답은 DB 커서에서 읽는 대로 스트리밍되며, gzip=true이면 gzip으로 압축해서 내려준다.
+     * 중단된 경우 마지막으로 받은 user_id를 afterId로 넘기면 그 다음 유저부터 이어서 받을 수 있다.
+     * ex) GET /api/users/export?format=CSV&gzip=true&afterId=50000
+     */
+    @GetMapping("/users/export")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "0") long afterId
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("users." + format.getExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = outputStream -> userExportService.export(outputStream, format, gzip, afterId);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 }
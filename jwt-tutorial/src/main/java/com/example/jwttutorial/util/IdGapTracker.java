@@ -0,0 +1,68 @@
+package com.example.jwttutorial.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * auto_increment id 이후의 행을 주기적으로 읽을 때, 아직 커밋되지 않아 보이지 않았던 id(gap)를 기억해 두는 도구
+ *
+ * MySQL은 insert 시점에 id를 할당하므로 작은 id의 트랜잭션이 큰 id보다 늦게 커밋될 수 있다.
+ * "마지막으로 본 id 이후"만 읽으면 그런 행은 영영 건너뛰게 되므로, 본 적 없는 id를 gap으로 남겨 두고
+ * pendingGaps()로 다시 조회한다. 롤백이나 삭제로 영영 나타나지 않는 id는 maxAge가 지나면 잊는다.
+ * gap은 최대 maxGaps개까지 큰 id(최근에 할당된 id)부터 남긴다.
+ *
+ * 스레드 안전하지 않다. (호출하는 쪽에서 동기화한다.)
+ */
+public class IdGapTracker {
+
+    private final long maxAgeNanos;
+    private final int maxGaps;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long highWaterMark;
+
+    public IdGapTracker(long highWaterMark, Duration maxAge, int maxGaps) {
+        this.highWaterMark = highWaterMark;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.maxGaps = maxGaps;
+    }
+
+    /**
+     * @return 지금까지 본 가장 큰 id
+     */
+    public long highWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * 읽은 행의 id를 기록한다. 순서는 상관없다.
+     */
+    public void observe(long id) {
+        if (id <= highWaterMark) {
+            gaps.remove(id);
+            return;
+        }
+        long now = System.nanoTime();
+        for (long missing = Math.max(highWaterMark + 1, id - maxGaps); missing < id; missing++) {
+            gaps.put(missing, now);
+        }
+        highWaterMark = id;
+        while (gaps.size() > maxGaps) {
+            gaps.pollFirstEntry();
+        }
+    }
+
+    /**
+     * @return 다시 조회해야 할 id (maxAge가 지난 gap은 버린다.)
+     */
+    public List<Long> pendingGaps() {
+        long now = System.nanoTime();
+        gaps.values().removeIf(firstSeen -> now - firstSeen > maxAgeNanos);
+        return new ArrayList<>(gaps.keySet());
+    }
+
+    public int gapCount() {
+        return gaps.size();
+    }
+}
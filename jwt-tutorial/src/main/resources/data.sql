@@ -1,10 +1,11 @@
 
 -- username : admin | password : admin
-insert into user (username, password, nickname, activated) values ('admin', '$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi', 'admin', 1);
--- insert into user (username, password, nickname, activated) values ('user', '$2a$08$UkVvwpULis18S19S5pZFn.YHPZt3oaqHZnDwqbCW9pft6uFtkXKDC', 'user', 1);
+-- role_mask : ROLE_USER(0번 비트) | ROLE_ADMIN(1번 비트) = 3
+insert into user (username, password, nickname, activated, role_mask) values ('admin', '$2a$08$lDnHPz7eUkSi6ao14Twuau08mzhWrL4kyZGGU5xfiGALO/Vxd5DOi', 'admin', 1, 3);
+-- insert into user (username, password, nickname, activated, role_mask) values ('user', '$2a$08$UkVvwpULis18S19S5pZFn.YHPZt3oaqHZnDwqbCW9pft6uFtkXKDC', 'user', 1, 1);
 
-insert into authority (authority_name) values ('ROLE_USER');
-insert into authority (authority_name) values ('ROLE_ADMIN');
+insert into authority (authority_name, authority_id) values ('ROLE_USER', 0);
+insert into authority (authority_name, authority_id) values ('ROLE_ADMIN', 1);
 
 -- JoinTable
 insert into user_authority (user_id, authority_name) values (1, 'ROLE_USER');
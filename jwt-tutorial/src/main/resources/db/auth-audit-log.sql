@@ -0,0 +1,13 @@
+-- 인증 감사 로그 테이블 (운영 프로파일은 ddl-auto: validate 이므로 직접 생성한다.)
+-- 로그인 경로에서는 insert만 일어나고, 조회/보관 주기 정리는 occurred_at 인덱스로 처리한다.
+
+create table auth_audit_log (
+    audit_id bigint not null auto_increment,
+    event_type varchar(30) not null,
+    username varchar(50),
+    client_ip varchar(45),
+    detail varchar(255),
+    occurred_at datetime(6) not null,
+    primary key (audit_id)
+);
+create index idx_auth_audit_log_occurred_at on auth_audit_log (occurred_at);
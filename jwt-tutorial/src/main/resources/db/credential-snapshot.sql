@@ -0,0 +1,45 @@
+-- 로그인 정보 변경 로그 테이블 (운영 프로파일은 ddl-auto: validate 이므로 직접 생성한다.)
+-- 애플리케이션은 회원가입, 비밀번호 재해시 때 같은 트랜잭션에서 직접 insert 한다.
+-- 스냅샷 노드(credential-snapshot.enabled)는 change_id 순서로 읽어 가고, 보관 기간이 지난 행은 changed_at 인덱스로 지운다.
+
+create table credential_change_log (
+    change_id bigint not null auto_increment,
+    username varchar(50) not null,
+    changed_at datetime(6) not null,
+    primary key (change_id)
+);
+create index idx_credential_change_log_changed_at on credential_change_log (changed_at);
+
+-- (선택) 애플리케이션을 거치지 않는 변경(운영자 SQL, 다른 서비스 등)도 반영하려면 아래 트리거를 만든다.
+-- 애플리케이션 insert와 중복으로 남아도 스냅샷 노드는 같은 유저를 한 번 더 읽을 뿐이다.
+
+create trigger trg_user_credential_update after update on user
+for each row
+    insert into credential_change_log (username, changed_at)
+    select new.username, now(6) from dual
+    where not (old.password <=> new.password)
+       or not (old.activated <=> new.activated)
+       or not (old.username <=> new.username);
+
+create trigger trg_user_credential_rename after update on user
+for each row
+    insert into credential_change_log (username, changed_at)
+    select old.username, now(6) from dual
+    where not (old.username <=> new.username);
+
+create trigger trg_user_credential_delete after delete on user
+for each row
+    insert into credential_change_log (username, changed_at)
+    values (old.username, now(6));
+
+create trigger trg_user_authority_insert after insert on user_authority
+for each row
+    insert into credential_change_log (username, changed_at)
+    select u.username, now(6) from user u
+    where u.user_id = new.user_id;
+
+create trigger trg_user_authority_delete after delete on user_authority
+for each row
+    insert into credential_change_log (username, changed_at)
+    select u.username, now(6) from user u
+    where u.user_id = old.user_id;
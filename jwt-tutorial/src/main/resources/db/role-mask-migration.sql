@@ -0,0 +1,17 @@
+-- 기존 MySQL 스키마에 role_mask 저장 방식을 추가하는 마이그레이션
+-- 1. 컬럼 추가 2. 권한마다 고정된 비트 위치 부여 3. user_authority 기준으로 role_mask 백필
+-- 백필 이후 애플리케이션을 authority.storage-mode: bitmask 로 띄우면 기동 시 RoleMaskMaintenance가 일관성을 검사한다.
+
+alter table authority add column authority_id int null;
+update authority set authority_id = 0 where authority_name = 'ROLE_USER';
+update authority set authority_id = 1 where authority_name = 'ROLE_ADMIN';
+alter table authority add constraint uk_authority_authority_id unique (authority_id);
+
+alter table user add column role_mask bigint not null default 0;
+update user u
+set u.role_mask = (
+    select coalesce(bit_or(1 << a.authority_id), 0)
+    from user_authority ua
+    join authority a on a.authority_name = ua.authority_name
+    where ua.user_id = u.user_id
+);
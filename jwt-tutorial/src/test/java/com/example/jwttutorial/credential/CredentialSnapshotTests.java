@@ -0,0 +1,274 @@
+package com.example.jwttutorial.credential;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CredentialSnapshotWriter로 쓴 파일을 CredentialSnapshot으로 다시 읽어 검증한다.
+ */
+class CredentialSnapshotTests {
+
+	private static final String PASSWORD = "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3F8QZ5pjcgkC4Vv5nZ2ZKSe";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void emptySnapshot() throws IOException {
+		Path file;
+		try (CredentialSnapshotWriter writer = writer(7)) {
+			file = writer.finish();
+		}
+		CredentialSnapshot snapshot = CredentialSnapshot.open(file);
+
+		assertThat(snapshot.getEntryCount()).isZero();
+		assertThat(snapshot.getChangeId()).isEqualTo(7);
+		assertThat(snapshot.lookup("admin")).isNull();
+		assertThat(snapshot.lookup("")).isNull();
+	}
+
+	@Test
+	void singleEntry() throws IOException {
+		Path file;
+		try (CredentialSnapshotWriter writer = writer(1)) {
+			writer.add("admin", PASSWORD, true, List.of("ROLE_ADMIN", "ROLE_USER"));
+			file = writer.finish();
+		}
+		CredentialSnapshot snapshot = CredentialSnapshot.open(file);
+
+		UserDetails admin = snapshot.lookup("admin");
+		assertThat(admin.getUsername()).isEqualTo("admin");
+		assertThat(admin.getPassword()).isEqualTo(PASSWORD);
+		assertThat(admin.isEnabled()).isTrue();
+		assertThat(AuthorityUtils.authorityListToSet(admin.getAuthorities())).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+		assertThat(snapshot.lookup("admin2")).isNull();
+		assertThat(snapshot.lookup("admi")).isNull();
+	}
+
+	@Test
+	void lookupIgnoresCase() throws IOException {
+		Path file;
+		try (CredentialSnapshotWriter writer = writer(1)) {
+			writer.add("Admin", PASSWORD, true, List.of("ROLE_USER"));
+			writer.add("user", PASSWORD, false, List.of());
+			file = writer.finish();
+		}
+		CredentialSnapshot snapshot = CredentialSnapshot.open(file);
+
+		// 저장된 username으로 돌려준다.
+		assertThat(snapshot.lookup("ADMIN").getUsername()).isEqualTo("Admin");
+		assertThat(snapshot.lookup("admin").getUsername()).isEqualTo("Admin");
+		assertThat(snapshot.lookup("Admin").getUsername()).isEqualTo("Admin");
+		assertThat(snapshot.lookup("USER").isEnabled()).isFalse();
+		assertThat(snapshot.lookup("USER").getAuthorities()).isEmpty();
+	}
+
+	@Test
+	void collidingSlotsWrapAround() throws IOException {
+		// 유저 3명이면 슬롯 8개. 모두 마지막 슬롯(7)에 걸리는 username을 골라 0, 1번 슬롯으로 넘어가게 한다.
+		List<String> colliding = usernamesInSlot(7, 7, 4);
+		List<String> stored = colliding.subList(0, 3);
+		Path file;
+		try (CredentialSnapshotWriter writer = writer(1)) {
+			for (String username : stored) {
+				writer.add(username, PASSWORD + username, true, List.of("ROLE_USER"));
+			}
+			file = writer.finish();
+		}
+		CredentialSnapshot snapshot = CredentialSnapshot.open(file);
+
+		assertThat(snapshot.getEntryCount()).isEqualTo(3);
+		for (String username : stored) {
+			assertThat(snapshot.lookup(username).getPassword()).isEqualTo(PASSWORD + username);
+			assertThat(snapshot.lookup(username.toUpperCase()).getUsername()).isEqualTo(username);
+		}
+		// 같은 슬롯에서 시작해 한 바퀴 넘어간 뒤 빈 슬롯에서 끝난다.
+		assertThat(snapshot.lookup(colliding.get(3))).isNull();
+	}
+
+	@Test
+	void manyEntries() throws IOException {
+		Path file;
+		try (CredentialSnapshotWriter writer = writer(1)) {
+			for (int i = 0; i < 1000; i++) {
+				writer.add("user" + i, PASSWORD, i % 2 == 0, i % 3 == 0 ? List.of("ROLE_ADMIN", "ROLE_USER") : List.of("ROLE_USER"));
+			}
+			file = writer.finish();
+		}
+		CredentialSnapshot snapshot = CredentialSnapshot.open(file);
+
+		assertThat(snapshot.getEntryCount()).isEqualTo(1000);
+		for (int i = 0; i < 1000; i++) {
+			UserDetails user = snapshot.lookup("USER" + i);
+			assertThat(user.getUsername()).isEqualTo("user" + i);
+			assertThat(user.isEnabled()).isEqualTo(i % 2 == 0);
+			assertThat(user.getAuthorities()).hasSize(i % 3 == 0 ? 2 : 1);
+		}
+		assertThat(snapshot.lookup("user1000")).isNull();
+	}
+
+	@Test
+	void corruptedDataFailsCrc() throws IOException {
+		Path file = singleEntrySnapshot();
+		long size = Files.size(file);
+		flipByte(file, size - 1);
+
+		assertThatThrownBy(() -> CredentialSnapshot.open(file))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("CRC");
+	}
+
+	@Test
+	void corruptedIndexFailsCrc() throws IOException {
+		Path file = singleEntrySnapshot();
+		int indexOffset = readInt(file, 36);
+		flipByte(file, indexOffset);
+
+		assertThatThrownBy(() -> CredentialSnapshot.open(file))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("CRC");
+	}
+
+	@Test
+	void corruptedHeaderIsRejected() throws IOException {
+		// indexOffset + slotCount * 8이 int 범위를 넘는 슬롯 수
+		Path overflow = singleEntrySnapshot();
+		writeInt(overflow, 28, 1 << 30);
+		assertThatThrownBy(() -> CredentialSnapshot.open(overflow)).isInstanceOf(IOException.class);
+
+		// 권한 목록 길이가 인덱스 영역을 넘는 경우
+		Path roleSets = singleEntrySnapshot(directory.resolve("role-sets"));
+		writeInt(roleSets, CredentialSnapshot.HEADER_SIZE, 0xFFFF);
+		assertThatThrownBy(() -> CredentialSnapshot.open(roleSets)).isInstanceOf(IOException.class);
+
+		Path magic = singleEntrySnapshot(directory.resolve("magic"));
+		writeInt(magic, 0, 0);
+		assertThatThrownBy(() -> CredentialSnapshot.open(magic)).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void truncatedFileIsRejected() throws IOException {
+		Path file = singleEntrySnapshot();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(file) - 1);
+		}
+		assertThatThrownBy(() -> CredentialSnapshot.open(file)).isInstanceOf(IOException.class);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(CredentialSnapshot.HEADER_SIZE - 1);
+		}
+		assertThatThrownBy(() -> CredentialSnapshot.open(file)).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void overlayKeepsLatestLoadedEntry() {
+		CredentialOverlay overlay = CredentialOverlay.EMPTY
+				.with(List.of(CredentialOverlay.Entry.of(10, "Admin", "old", true, authorities("ROLE_USER"))))
+				.with(List.of(CredentialOverlay.Entry.of(20, "admin", "new", true, authorities("ROLE_ADMIN"))))
+				// 더 먼저 읽은 값은 덮어쓰지 않는다.
+				.with(List.of(CredentialOverlay.Entry.of(15, "ADMIN", "stale", true, authorities())));
+
+		assertThat(overlay.size()).isEqualTo(1);
+		assertThat(overlay.lookup("ADMIN").toUserDetails().getPassword()).isEqualTo("new");
+		assertThat(overlay.lookup("other")).isNull();
+
+		overlay = overlay.with(List.of(CredentialOverlay.Entry.deleted(30, "admin")));
+		assertThat(overlay.lookup("Admin").isDeleted()).isTrue();
+	}
+
+	@Test
+	void overlayRetainsEntriesLoadedAfterScan() {
+		List<CredentialOverlay.Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			entries.add(CredentialOverlay.Entry.of(i, "user" + i, PASSWORD, true, authorities("ROLE_USER")));
+		}
+		CredentialOverlay overlay = CredentialOverlay.EMPTY.with(entries);
+
+		CredentialOverlay retained = overlay.retainAfter(50);
+		assertThat(retained.size()).isEqualTo(50);
+		assertThat(retained.lookup("user49")).isNull();
+		assertThat(retained.lookup("USER50")).isNotNull();
+		assertThat(retained.lookup("user99")).isNotNull();
+
+		assertThat(overlay.retainAfter(0)).isSameAs(overlay);
+		assertThat(overlay.retainAfter(100).size()).isZero();
+		// loadedAt은 System.nanoTime 값이므로 부호가 넘어가도 순서를 유지한다.
+		CredentialOverlay wrapped = CredentialOverlay.EMPTY
+				.with(List.of(CredentialOverlay.Entry.of(Long.MIN_VALUE + 1, "late", PASSWORD, true, authorities())));
+		assertThat(wrapped.retainAfter(Long.MAX_VALUE).size()).isEqualTo(1);
+	}
+
+	private CredentialSnapshotWriter writer(long changeId) throws IOException {
+		return new CredentialSnapshotWriter(directory, changeId);
+	}
+
+	private Path singleEntrySnapshot() throws IOException {
+		return singleEntrySnapshot(directory);
+	}
+
+	private static Path singleEntrySnapshot(Path directory) throws IOException {
+		try (CredentialSnapshotWriter writer = new CredentialSnapshotWriter(directory, 1)) {
+			writer.add("admin", PASSWORD, true, List.of("ROLE_ADMIN"));
+			return writer.finish();
+		}
+	}
+
+	private static List<String> usernamesInSlot(int slot, int mask, int count) {
+		List<String> usernames = new ArrayList<>();
+		for (int i = 0; usernames.size() < count; i++) {
+			String username = "user" + i;
+			if ((CredentialSnapshot.hash(username) & mask) == slot) {
+				usernames.add(username);
+			}
+		}
+		return usernames;
+	}
+
+	private static List<GrantedAuthority> authorities(String... roles) {
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		for (String role : roles) {
+			authorities.add(new SimpleGrantedAuthority(role));
+		}
+		return authorities;
+	}
+
+	private static void flipByte(Path file, long position) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1);
+			channel.read(buffer, position);
+			buffer.put(0, (byte) (buffer.get(0) ^ 0xFF));
+			buffer.rewind();
+			channel.write(buffer, position);
+		}
+	}
+
+	private static int readInt(Path file, long position) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+			channel.read(buffer, position);
+			return buffer.getInt(0);
+		}
+	}
+
+	private static void writeInt(Path file, long position, int value) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), position);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package com.example.jwttutorial.security.authorization;
+
+import com.example.jwttutorial.token.presentation.TokenController;
+import com.example.jwttutorial.user.presentation.UserController;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 사전 컴파일한 @PreAuthorize 결정이 SpEL(PreAuthorizeAuthorizationManager) 평가 결과와 같은지 검증한다.
+ */
+class PrecompiledPreAuthorizeAuthorizationManagerTests {
+
+	private static final List<String[]> AUTHORITY_SETS = List.of(
+			new String[]{},
+			new String[]{"ROLE_USER"},
+			new String[]{"ROLE_ADMIN"},
+			new String[]{"ROLE_USER", "ROLE_ADMIN"},
+			new String[]{"ROLE_ADMIN", "ROLE_USER"},
+			new String[]{"SCOPE_read"},
+			new String[]{"ROLE_USER", "SCOPE_read", "OTHER"},
+			new String[]{"ADMIN"},
+			new String[]{"USER"}
+	);
+
+	private final DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+
+	private final PrecompiledPreAuthorizeAuthorizationManager precompiled =
+			new PrecompiledPreAuthorizeAuthorizationManager(expressionHandler, "ROLE_");
+
+	private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+
+	PrecompiledPreAuthorizeAuthorizationManagerTests() {
+		spel.setExpressionHandler(expressionHandler);
+	}
+
+	@Test
+	void compilableExpressionsMatchSpel() {
+		for (Method method : annotatedMethods(Rules.class)) {
+			assertThat(precompiled.isPrecompiled(method, Rules.class))
+					.as(method.getName())
+					.isTrue();
+			assertEquivalent(new Rules(), method);
+		}
+	}
+
+	@Test
+	void otherExpressionsFallBackToSpel() {
+		for (Method method : annotatedMethods(SpelOnlyRules.class)) {
+			assertThat(precompiled.isPrecompiled(method, SpelOnlyRules.class))
+					.as(method.getName())
+					.isFalse();
+			assertEquivalent(new SpelOnlyRules(), method, "ROLE_USER");
+		}
+	}
+
+	@Test
+	void classLevelAnnotationIsUsedWhenMethodHasNone() {
+		Method method = ReflectionUtils.findMethod(ClassLevelRule.class, "adminOnly");
+
+		assertThat(precompiled.isPrecompiled(method, ClassLevelRule.class)).isTrue();
+		assertEquivalent(new ClassLevelRule(), method);
+	}
+
+	@Test
+	void methodsWithoutAnnotationAbstain() {
+		Method method = ReflectionUtils.findMethod(Rules.class, "notAnnotated");
+		MethodInvocation invocation = new SimpleMethodInvocation(new Rules(), method);
+
+		assertThat(precompiled.check(() -> authentication("ROLE_USER"), invocation)).isNull();
+		assertThat(spel.check(() -> authentication("ROLE_USER"), invocation)).isNull();
+	}
+
+	@Test
+	void controllerRulesArePrecompiledAndMatchSpel() {
+		UserController userController = new UserController(null, null);
+		for (Method method : annotatedMethods(UserController.class)) {
+			assertThat(precompiled.isPrecompiled(method, UserController.class)).as(method.getName()).isTrue();
+			assertEquivalent(userController, method);
+		}
+
+		TokenController tokenController = new TokenController(null);
+		for (Method method : annotatedMethods(TokenController.class)) {
+			assertThat(precompiled.isPrecompiled(method, TokenController.class)).as(method.getName()).isTrue();
+			assertEquivalent(tokenController, method);
+		}
+	}
+
+	@Test
+	void repeatedDecisionsAreStable() {
+		Method method = ReflectionUtils.findMethod(Rules.class, "userButNotAdmin");
+		MethodInvocation invocation = new SimpleMethodInvocation(new Rules(), method);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(precompiled.check(() -> authentication("ROLE_USER"), invocation).isGranted()).isTrue();
+			assertThat(precompiled.check(() -> authentication("ROLE_USER", "ROLE_ADMIN"), invocation).isGranted()).isFalse();
+		}
+	}
+
+	private void assertEquivalent(Object target, Method method, String... fixedAuthorities) {
+		Object[] arguments = new Object[method.getParameterCount()];
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = "user";
+		}
+		MethodInvocation invocation = new SimpleMethodInvocation(target, method, arguments);
+
+		List<String[]> authoritySets = fixedAuthorities.length > 0 ? List.<String[]>of(fixedAuthorities) : AUTHORITY_SETS;
+		for (String[] authorities : authoritySets) {
+			AuthorizationDecision expected = spel.check(() -> authentication(authorities), invocation);
+			AuthorizationDecision actual = precompiled.check(() -> authentication(authorities), invocation);
+
+			assertThat(actual.isGranted())
+					.as("%s with %s", method.getName(), String.join(",", authorities))
+					.isEqualTo(expected.isGranted());
+		}
+	}
+
+	private static Authentication authentication(String... authorities) {
+		return new TestingAuthenticationToken("user", "password", authorities);
+	}
+
+	private static List<Method> annotatedMethods(Class<?> type) {
+		List<Method> methods = new ArrayList<>();
+		for (Method method : type.getDeclaredMethods()) {
+			if (method.isAnnotationPresent(PreAuthorize.class)) {
+				methods.add(method);
+			}
+		}
+		assertThat(methods).isNotEmpty();
+		return methods;
+	}
+
+	static class Rules {
+
+		@PreAuthorize("hasRole('USER')")
+		public void userRole() {
+		}
+
+		@PreAuthorize("hasRole('ROLE_USER')")
+		public void prefixedRole() {
+		}
+
+		@PreAuthorize("hasAnyRole('USER','ADMIN')")
+		public void anyRole() {
+		}
+
+		@PreAuthorize("hasAnyRole()")
+		public void noRoles() {
+		}
+
+		@PreAuthorize("hasAuthority('ROLE_ADMIN')")
+		public void authority() {
+		}
+
+		@PreAuthorize("hasAuthority('ADMIN')")
+		public void authorityWithoutPrefix() {
+		}
+
+		@PreAuthorize("hasAnyAuthority('ROLE_USER', \"SCOPE_read\")")
+		public void anyAuthority() {
+		}
+
+		@PreAuthorize("hasRole('USER') and !hasRole('ADMIN')")
+		public void userButNotAdmin() {
+		}
+
+		@PreAuthorize("hasRole('ADMIN') or hasAuthority('SCOPE_read')")
+		public void adminOrScope() {
+		}
+
+		@PreAuthorize("not (hasRole('USER') or hasRole('ADMIN')) and hasAuthority('OTHER') or hasAuthority('ADMIN')")
+		public void nested() {
+		}
+
+		@PreAuthorize("permitAll")
+		public void permitAll() {
+		}
+
+		@PreAuthorize("denyAll")
+		public void denyAll() {
+		}
+
+		@PreAuthorize("true and !false")
+		public void literals() {
+		}
+
+		public void notAnnotated() {
+		}
+	}
+
+	static class SpelOnlyRules {
+
+		@PreAuthorize("isAuthenticated()")
+		public void authenticated() {
+		}
+
+		@PreAuthorize("hasRole('USER') and isAuthenticated()")
+		public void mixed() {
+		}
+
+		@PreAuthorize("#username == authentication.name")
+		public void parameter(String username) {
+		}
+	}
+
+	@PreAuthorize("hasRole('ADMIN')")
+	static class ClassLevelRule {
+
+		public void adminOnly() {
+		}
+	}
+}